@@ -0,0 +1,288 @@
+package dev.anvilcraft.rg.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 规则注解处理器，在编译期为每个带有 {@code @Rule} 字段的类生成 {@code RGRuleRegistry} 实现
+ * <p>
+ * 生成的注册表直接创建验证器并传入注解参数，运行时注册规则类时无需遍历字段、
+ * 检查修饰符和反射创建验证器。所有生成的注册表在最后一轮写入 {@code META-INF/services}，
+ * 运行时通过ServiceLoader按规则类查找，不需要按类名反射加载。处理器不依赖模组本体，注解与接口均按名称引用
+ */
+@SupportedAnnotationTypes(RuleProcessor.RULE)
+public class RuleProcessor extends AbstractProcessor {
+    static final String RULE = "dev.anvilcraft.rg.api.Rule";
+    private static final String API = "dev.anvilcraft.rg.api";
+    private static final String SUFFIX = "_RGRegistry";
+    private static final String SERVICE = "META-INF/services/" + API + ".RGRuleRegistry";
+    // 本次编译生成的所有注册表的完整类名
+    private final Set<String> generated = new LinkedHashSet<>();
+    private static final Set<String> SUPPORTED_TYPES = Set.of(
+        "boolean", "java.lang.Boolean",
+        "byte", "java.lang.Byte",
+        "short", "java.lang.Short",
+        "int", "java.lang.Integer",
+        "long", "java.lang.Long",
+        "float", "java.lang.Float",
+        "double", "java.lang.Double",
+        "java.lang.String"
+    );
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.writeServices();
+            return false;
+        }
+        TypeElement rule = this.processingEnv.getElementUtils().getTypeElement(RULE);
+        if (rule == null) return false;
+        // 收集所有包含规则字段的类，保持声明顺序
+        Set<TypeElement> holders = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(rule)) {
+            if (element.getKind() != ElementKind.FIELD) continue;
+            holders.add((TypeElement) element.getEnclosingElement());
+        }
+        for (TypeElement holder : holders) {
+            try {
+                this.generate(holder, rule);
+            } catch (IOException e) {
+                this.messager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate rule registry: " + e.getMessage(), holder);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement holder, TypeElement rule) throws IOException {
+        Elements elements = this.processingEnv.getElementUtils();
+        PackageElement pkg = elements.getPackageOf(holder);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(holder).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + SUFFIX;
+        String holderName = holder.getQualifiedName().toString();
+
+        List<String> entries = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(holder.getEnclosedElements())) {
+            String name = field.getSimpleName().toString();
+            AnnotationMirror mirror = this.findAnnotation(field, rule);
+            // 与运行时检查保持一致，规则类中的所有字段都必须是规则
+            if (mirror == null) {
+                this.error(field, "Field %s is not annotated with @Rule", name);
+                valid = false;
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.STATIC)) {
+                this.error(field, "Field %s is not static", name);
+                valid = false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC)) {
+                this.error(field, "Field %s is not public", name);
+                valid = false;
+            }
+            if (modifiers.contains(Modifier.FINAL)) {
+                this.error(field, "Field %s can't be final", name);
+                valid = false;
+            }
+            if (!SUPPORTED_TYPES.contains(this.typeName(field.asType()))) {
+                this.error(field, "Field %s has unsupported type %s", name, field.asType());
+                valid = false;
+            }
+            if (valid) entries.add(this.entry(holderName, name, field, mirror));
+        }
+        if (!valid) return;
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        this.generated.add(qualifiedName);
+        Filer filer = this.processingEnv.getFiler();
+        JavaFileObject file = filer.createSourceFile(qualifiedName, holder);
+        try (Writer writer = file.openWriter()) {
+            if (!packageName.isEmpty()) writer.write("package " + packageName + ";\n\n");
+            writer.write("@javax.annotation.processing.Generated(\"" + RuleProcessor.class.getName() + "\")\n");
+            writer.write("public final class " + simpleName + " implements " + API + ".RGRuleRegistry {\n");
+            writer.write("    @Override\n");
+            writer.write("    public java.util.List<" + API + ".RGRule<?>> create(String namespace) {\n");
+            writer.write("        java.util.Map<String, java.lang.reflect.Field> fields = " + API + ".RGRuleRegistry.fields(" + holderName + ".class);\n");
+            writer.write("        java.util.List<" + API + ".RGRule<?>> rules = new java.util.ArrayList<>(" + entries.size() + ");\n");
+            for (String entry : entries) {
+                writer.write("        rules.add(" + entry + ");\n");
+            }
+            writer.write("        return rules;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public Class<?> holder() {\n");
+            writer.write("        return " + holderName + ".class;\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    private void writeServices() {
+        if (this.generated.isEmpty()) return;
+        try {
+            FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+            try (Writer writer = file.openWriter()) {
+                for (String name : this.generated) writer.write(name + "\n");
+            }
+        } catch (IOException e) {
+            this.messager().printMessage(Diagnostic.Kind.ERROR, "Failed to write rule registry services: " + e.getMessage());
+        }
+    }
+
+    private String entry(String holderName, String name, VariableElement field, AnnotationMirror mirror) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+            this.processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        String env = "SERVER";
+        String serialize = "";
+        List<String> allowed = List.of();
+        List<String> categories = List.of();
+        List<String> validators = new ArrayList<>();
+        boolean stable = false;
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            Object value = entry.getValue().getValue();
+            switch (entry.getKey().getSimpleName().toString()) {
+                case "env" -> env = ((VariableElement) value).getSimpleName().toString();
+                case "serialize" -> serialize = (String) value;
+                case "allowed" -> allowed = this.strings(value);
+                case "categories" -> categories = this.strings(value);
+                case "stable" -> stable = (Boolean) value;
+                case "validator" -> {
+                    for (AnnotationValue validator : this.list(value)) {
+                        String instance = this.validator(field, (TypeMirror) validator.getValue());
+                        if (instance != null) validators.add(instance);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return API + ".RGRule.of(namespace, "
+            + API + ".RGRuleRegistry.field(fields, " + this.literal(name) + "), "
+            + API + ".RGEnvironment." + env + ", "
+            + this.array(categories) + ", "
+            + this.literal(serialize) + ", "
+            + this.array(allowed) + ", "
+            + stable + ", "
+            + "java.util.List.of(" + String.join(", ", validators) + "))";
+    }
+
+    private String validator(VariableElement field, TypeMirror type) {
+        if (!(type instanceof DeclaredType declared)) return null;
+        TypeElement element = (TypeElement) declared.asElement();
+        // 运行时无法实例化的验证器会被记录并跳过，这里保持相同的行为
+        if (element.getModifiers().contains(Modifier.ABSTRACT)) {
+            this.warning(field, "Validator %s is abstract and will be ignored", element.getQualifiedName());
+            return null;
+        }
+        boolean constructor = false;
+        for (ExecutableElement executable : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (executable.getParameters().isEmpty() && executable.getModifiers().contains(Modifier.PUBLIC)) {
+                constructor = true;
+                break;
+            }
+        }
+        if (!constructor || !element.getModifiers().contains(Modifier.PUBLIC)) {
+            this.warning(field, "Validator %s has no public no-arg constructor and will be ignored", element.getQualifiedName());
+            return null;
+        }
+        return "new " + element.getQualifiedName() + "()";
+    }
+
+    private AnnotationMirror findAnnotation(Element element, TypeElement annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotation)) return mirror;
+        }
+        return null;
+    }
+
+    private String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) return type.toString();
+        if (type instanceof DeclaredType declared) {
+            return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> list(Object value) {
+        return (List<? extends AnnotationValue>) value;
+    }
+
+    private List<String> strings(Object value) {
+        List<String> result = new ArrayList<>();
+        for (AnnotationValue annotationValue : this.list(value)) {
+            result.add((String) annotationValue.getValue());
+        }
+        return result;
+    }
+
+    private String array(List<String> values) {
+        List<String> literals = new ArrayList<>();
+        for (String value : values) literals.add(this.literal(value));
+        return "new String[]{" + String.join(", ", literals) + "}";
+    }
+
+    private String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) builder.append("\\u%04x".formatted((int) c));
+                    else builder.append(c);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private Messager messager() {
+        return this.processingEnv.getMessager();
+    }
+
+    private void error(Element element, String msg, Object... args) {
+        this.messager().printMessage(Diagnostic.Kind.ERROR, msg.formatted(args), element);
+    }
+
+    private void warning(Element element, String msg, Object... args) {
+        this.messager().printMessage(Diagnostic.Kind.WARNING, msg.formatted(args), element);
+    }
+}
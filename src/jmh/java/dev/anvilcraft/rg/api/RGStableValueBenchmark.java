@@ -0,0 +1,68 @@
+package dev.anvilcraft.rg.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较规则字段的几种读取方式：直接读取静态字段、通过 {@link VarHandle} 读取以及通过 {@link RGStableValue} 的调用点读取
+ * <p>
+ * 每种方式都在循环中读取并累加，使读取位于已编译的热点代码中，稳定规则的常量折叠才能体现出来
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RGStableValueBenchmark {
+    // 循环读取的次数
+    private static final int READS = 1024;
+    // 模拟规则字段
+    public static int rule = 8;
+    private static final VarHandle HANDLE;
+    private static final MethodHandle STABLE;
+
+    static {
+        try {
+            HANDLE = MethodHandles.lookup().findStaticVarHandle(RGStableValueBenchmark.class, "rule", int.class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        // 与规则的调用器一样存入 static final 字段
+        STABLE = new RGStableValue(HANDLE).invoker();
+    }
+
+    @Benchmark
+    public int plainField() {
+        int sum = 0;
+        for (int i = 0; i < READS; i++) sum += RGStableValueBenchmark.rule;
+        return sum;
+    }
+
+    @Benchmark
+    public int varHandle() {
+        int sum = 0;
+        for (int i = 0; i < READS; i++) sum += (int) HANDLE.get();
+        return sum;
+    }
+
+    @Benchmark
+    public int varHandleVolatile() {
+        int sum = 0;
+        for (int i = 0; i < READS; i++) sum += (int) HANDLE.getVolatile();
+        return sum;
+    }
+
+    @Benchmark
+    public int stableCallSite() throws Throwable {
+        int sum = 0;
+        for (int i = 0; i < READS; i++) sum += (int) STABLE.invokeExact();
+        return sum;
+    }
+}
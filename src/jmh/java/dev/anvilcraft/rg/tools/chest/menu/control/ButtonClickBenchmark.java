@@ -0,0 +1,69 @@
+package dev.anvilcraft.rg.tools.chest.menu.control;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.component.CustomData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较 AbstractContainerMenuMixin.doClick 新旧两种按钮判断方式的开销
+ * <p>
+ * 旧的方式对每次点击都复制两次物品的自定义数据；新的方式先跳过不包含 CustomChestMenu 的菜单，
+ * 再只读取标签而不复制。物品堆需要注册表才能创建，这里直接使用点击槽位中物品的自定义数据，
+ * 菜单是否包含 CustomChestMenu 用参数模拟
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ButtonClickBenchmark {
+    // 点击的物品：没有自定义数据、带有其他模组的自定义数据、按钮
+    @Param({"none", "foreign", "button"})
+    public String item;
+    // 点击的菜单是否包含 CustomChestMenu
+    @Param({"false", "true"})
+    public boolean customChestMenu;
+    private CustomData customData;
+    // 与 mixin 中缓存的菜单状态相同，1 表示包含 CustomChestMenu
+    private byte customChestState;
+
+    @Setup
+    public void setup() {
+        CompoundTag tag = new CompoundTag();
+        switch (this.item) {
+            case "foreign" -> {
+                // 常见的带有较多自定义数据的物品
+                for (int i = 0; i < 16; i++) tag.putString("key" + i, "value" + i);
+                this.customData = CustomData.of(tag);
+            }
+            case "button" -> {
+                tag.putBoolean(Button.RG_CLEAR, false);
+                this.customData = CustomData.of(tag);
+            }
+            default -> this.customData = null;
+        }
+        this.customChestState = (byte) (this.customChestMenu ? 1 : 2);
+    }
+
+    @Benchmark
+    public boolean oldPath() {
+        CustomData customData = this.customData;
+        if (customData == null || customData.copyTag().get(Button.RG_CLEAR) == null) {
+            return false;
+        }
+        return customData.copyTag().getBoolean(Button.RG_CLEAR);
+    }
+
+    @Benchmark
+    public boolean newPath() {
+        if (this.customChestState != 1) return false;
+        return Button.shouldClear(this.customData);
+    }
+}
@@ -2,23 +2,36 @@ package dev.anvilcraft.rg;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.mojang.brigadier.context.CommandContext;
 import com.mojang.logging.LogUtils;
 import dev.anvilcraft.rg.api.client.ClientRGRuleManager;
+import dev.anvilcraft.rg.api.ConfigWriter;
 import dev.anvilcraft.rg.api.RGAdditional;
+import dev.anvilcraft.rg.api.RGRule;
+import dev.anvilcraft.rg.api.RGRuleLoader;
+import dev.anvilcraft.rg.api.event.ServerAboutToStopEvent;
+import dev.anvilcraft.rg.api.server.RGMessageStream;
 import dev.anvilcraft.rg.api.server.ServerRGRuleManager;
 import dev.anvilcraft.rg.api.server.TranslationUtil;
 import dev.anvilcraft.rg.client.RollingGateClientRules;
+import dev.anvilcraft.rg.event.RGAdaptiveDistance;
+import dev.anvilcraft.rg.event.RGDistanceTransition;
+import dev.anvilcraft.rg.event.RGRuleChangeEventListener;
+import dev.anvilcraft.rg.event.RGTickEffects;
 import dev.anvilcraft.rg.tools.WelcomeMessage;
 import dev.anvilcraft.rg.tools.serializer.ChatFormattingSerializer;
 import dev.anvilcraft.rg.tools.serializer.DimTypeSerializer;
 import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
-import net.neoforged.fml.ModList;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.fml.event.lifecycle.FMLLoadCompleteEvent;
@@ -28,8 +41,6 @@ import net.neoforged.neoforge.event.server.ServerStartingEvent;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 
-import java.util.Optional;
-
 @Mod(RollingGate.MODID)
 public class RollingGate implements RGAdditional {
     public static final String MODID = "rolling_gate";
@@ -40,10 +51,22 @@ public class RollingGate implements RGAdditional {
         modEventBus.addListener(this::onLoadComplete);
         NeoForge.EVENT_BUS.addListener(this::onPlayerLoggingIn);
         NeoForge.EVENT_BUS.addListener(this::onServerStarting);
+        NeoForge.EVENT_BUS.addListener(this::onServerAboutToStop);
         NeoForge.EVENT_BUS.addListener(this::registerCommand);
+        NeoForge.EVENT_BUS.addListener(RGTickEffects::onServerTick);
+        NeoForge.EVENT_BUS.addListener(RGDistanceTransition::onServerTick);
+        NeoForge.EVENT_BUS.addListener(RGMessageStream::onServerTick);
+        NeoForge.EVENT_BUS.addListener(RGAdaptiveDistance::onServerTickPre);
+        NeoForge.EVENT_BUS.addListener(RGAdaptiveDistance::onServerTickPost);
         modContainer.registerExtensionPoint(RGAdditional.class, this);
     }
 
+    @Override
+    public boolean parallelLoading() {
+        // 只注册自身的规则类并读取自身的语言文件，可以与其他模组并行加载
+        return true;
+    }
+
     @Override
     public void loadServerRules(@NotNull ServerRGRuleManager manager) {
         manager.register(RollingGateServerRules.class);
@@ -58,21 +81,91 @@ public class RollingGate implements RGAdditional {
 
     @SubscribeEvent
     public void onLoadComplete(FMLLoadCompleteEvent event) {
-        ModList.get().forEachModContainer((modId, modContainer) -> {
-            RollingGate.SERVER_RULE_MANAGER.setNamespace(modId);
-            Optional<RGAdditional> additional = modContainer.getCustomExtension(RGAdditional.class);
-            additional.ifPresent(add -> add.loadServerRules(RollingGate.SERVER_RULE_MANAGER));
-        });
+        RGRuleLoader.load(RollingGate.SERVER_RULE_MANAGER, ServerRGRuleManager::new, RGAdditional::loadServerRules);
+        RGRuleChangeEventListener.register(RollingGate.SERVER_RULE_MANAGER);
+        RGAdaptiveDistance.register(RollingGate.SERVER_RULE_MANAGER);
+        RGRule<Boolean> configHotReload = RollingGate.SERVER_RULE_MANAGER.getRule(MODID, "config_hot_reload");
+        if (configHotReload != null) configHotReload.onChange((rule, oldValue, newValue, server) -> this.toggleWatching(server, newValue));
+        RGRule<Boolean> compactCommandTree = RollingGate.SERVER_RULE_MANAGER.getRule(MODID, "compact_command_tree");
+        // 两种形状的命令树都已注册，切换时只需重新发送命令树
+        if (compactCommandTree != null) compactCommandTree.onChange((rule, oldValue, newValue, server) -> RGTickEffects.resyncAllCommands());
     }
 
     @SubscribeEvent
     public void onServerStarting(@NotNull ServerStartingEvent event) {
         RollingGate.SERVER_RULE_MANAGER.reInit(event.getServer());
+        if (RollingGateServerRules.configHotReload) RollingGate.SERVER_RULE_MANAGER.startWatching(event.getServer());
+    }
+
+    @SubscribeEvent
+    public void onServerAboutToStop(@NotNull ServerAboutToStopEvent event) {
+        RollingGate.SERVER_RULE_MANAGER.stopWatching();
+        RGDistanceTransition.VIEW.cancel();
+        RGDistanceTransition.SIMULATION.cancel();
+        RGMessageStream.clear();
+        ConfigWriter.flush();
+    }
+
+    private void toggleWatching(MinecraftServer server, boolean enabled) {
+        if (server == null) return;
+        if (enabled) {
+            RollingGate.SERVER_RULE_MANAGER.startWatching(server);
+        } else {
+            RollingGate.SERVER_RULE_MANAGER.stopWatching();
+        }
     }
 
     @SubscribeEvent
     public void registerCommand(@NotNull RegisterCommandsEvent event) {
         RollingGate.SERVER_RULE_MANAGER.generateCommand(event.getDispatcher(), MODID, "rg");
+        // 合并到已注册的根节点，沿用其权限要求
+        event.getDispatcher().register(
+            Commands.literal(MODID)
+                .then(Commands.literal("stats").executes(this::statsCommand))
+                .then(
+                    Commands.literal("distance")
+                        .executes(this::distanceCommand)
+                        .then(Commands.literal("cancel").executes(this::cancelDistanceCommand))
+                )
+        );
+    }
+
+    private int distanceCommand(@NotNull CommandContext<CommandSourceStack> context) {
+        MinecraftServer server = context.getSource().getServer();
+        for (RGDistanceTransition transition : new RGDistanceTransition[]{RGDistanceTransition.VIEW, RGDistanceTransition.SIMULATION}) {
+            int current = transition.getCurrent(server);
+            int target = transition.getTarget();
+            Component message = target < 0
+                ? TranslationUtil.trans("rolling_gate.command.distance.idle", transition.getName(), current)
+                : TranslationUtil.trans("rolling_gate.command.distance.progress", transition.getName(), current, target);
+            context.getSource().sendSuccess(() -> message.copy().withStyle(ChatFormatting.GRAY), false);
+        }
+        if (RollingGateServerRules.adaptiveDistance) {
+            String mspt = "%.1f".formatted(RGAdaptiveDistance.getAverageMspt());
+            context.getSource().sendSuccess(() -> TranslationUtil.trans(
+                "rolling_gate.command.distance.adaptive", mspt, RollingGateServerRules.adaptiveTargetMspt
+            ).withStyle(ChatFormatting.GRAY), false);
+        }
+        return 1;
+    }
+
+    private int cancelDistanceCommand(@NotNull CommandContext<CommandSourceStack> context) {
+        boolean view = RGDistanceTransition.VIEW.cancel();
+        boolean simulation = RGDistanceTransition.SIMULATION.cancel();
+        if (!view && !simulation) {
+            context.getSource().sendFailure(TranslationUtil.trans("rolling_gate.command.distance.none").withStyle(ChatFormatting.RED));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.distance.cancelled").withStyle(ChatFormatting.GREEN), false);
+        return 1;
+    }
+
+    private int statsCommand(@NotNull CommandContext<CommandSourceStack> context) {
+        RGTickEffects.Stats stats = RGTickEffects.getStats();
+        context.getSource().sendSuccess(() -> TranslationUtil.trans(
+            "rolling_gate.command.stats.commands", stats.requested(), stats.flushed(), stats.coalesced(), stats.resent(), stats.skipped()
+        ).withStyle(ChatFormatting.GRAY), false);
+        return 1;
     }
 
     @SubscribeEvent
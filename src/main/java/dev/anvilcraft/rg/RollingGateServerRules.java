@@ -5,6 +5,7 @@ import dev.anvilcraft.rg.api.Rule;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
+import java.util.Set;
 
 public class RollingGateServerRules {
     @Rule(allowed = {"zh_cn", "en_us"}, categories = RollingGateCategories.BASE)
@@ -31,10 +32,94 @@ public class RollingGateServerRules {
     )
     public static int simulationDistance = 0;
 
+    public static class DistanceTransitionBudgetValidator extends RGValidator.IntegerValidator {
+        @Override
+        public @NotNull Map.Entry<Integer, Integer> getRange() {
+            return Map.entry(0, 65536);
+        }
+    }
+
+    @Rule(
+        allowed = {"0", "256", "1024", "4096"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = DistanceTransitionBudgetValidator.class
+    )
+    public static int distanceTransitionBudget = 0;
+
+    @Rule(
+        allowed = {"true", "false"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = RGValidator.BooleanValidator.class
+    )
+    public static boolean adaptiveDistance = false;
+
+    public static class AdaptiveTargetMsptValidator extends RGValidator.IntegerValidator {
+        @Override
+        public @NotNull Map.Entry<Integer, Integer> getRange() {
+            return Map.entry(1, 1000);
+        }
+    }
+
+    @Rule(
+        allowed = {"30", "40", "45", "50"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = AdaptiveTargetMsptValidator.class
+    )
+    public static int adaptiveTargetMspt = 45;
+
+    @Rule(
+        allowed = {"2", "4", "6", "8"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = ViewDistanceValidator.class
+    )
+    public static int adaptiveMinDistance = 4;
+
+    @Rule(
+        allowed = {"12", "16", "24", "32"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = ViewDistanceValidator.class
+    )
+    public static int adaptiveMaxDistance = 16;
+
     @Rule(
         allowed = {"true", "false"},
         categories = RollingGateCategories.EXPERIMENTAL,
         validator = RGValidator.BooleanValidator.class
     )
     public static boolean welcomePlayer = false;
+
+    @Rule(
+        allowed = {"true", "false"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = RGValidator.BooleanValidator.class
+    )
+    public static boolean configJournal = false;
+
+    @Rule(
+        allowed = {"true", "false"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = RGValidator.BooleanValidator.class
+    )
+    public static boolean configHotReload = false;
+
+    public static class ConfigFormatValidator extends RGValidator.StringInSetValidator {
+        @Override
+        public Set<String> getSet() {
+            return Set.of("json", "binary");
+        }
+    }
+
+    @Rule(
+        allowed = {"json", "binary"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = ConfigFormatValidator.class
+    )
+    public static String configFormat = "json";
+
+    @Rule(
+        allowed = {"true", "false"},
+        categories = RollingGateCategories.EXPERIMENTAL,
+        validator = RGValidator.BooleanValidator.class
+    )
+    public static boolean compactCommandTree = false;
 }
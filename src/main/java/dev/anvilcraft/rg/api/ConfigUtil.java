@@ -1,14 +1,25 @@
 package dev.anvilcraft.rg.api;
 
 import com.google.gson.JsonObject;
+import dev.anvilcraft.rg.RollingGate;
 import net.minecraft.util.GsonHelper;
 import org.apache.commons.io.FileUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * ConfigUtil类提供文件操作实用程序，包括读取和写入JSON配置文件
@@ -18,28 +29,53 @@ public class ConfigUtil {
     /**
      * 从指定的文件路径检索JSON对象内容。如果文件不存在或是目录，
      * 它创建一个包含空JSON对象内容的新文件，并返回一个空JsonObject
+     * 文件格式根据文件头自动识别，二进制配置会被转换为等价的JsonObject
      *
      * @param path 文件路径，不得为空
      * @return 返回从文件读取的JSON对象，如果文件不存在，则返回一个新的空JsonObject
      * @throws RGRuleException 如果读取文件失败，则抛出异常并说明原因
      */
     public static @NotNull JsonObject getOrCreateContent(@NotNull Path path) {
-        File file = path.toFile();
         try {
-            if (!file.exists() || file.isDirectory()) {
-                // 将空JSON对象写入不存在的或目录文件
-                FileUtils.writeStringToFile(file, "{}", StandardCharsets.UTF_8);
+            if (!Files.exists(path) || Files.isDirectory(path)) {
+                // 将空JSON对象写入不存在的或目录文件，与其他配置文件一样原子地写入
+                ConfigUtil.writeContentAtomically(path, "{}");
                 return new JsonObject();
             }
-            // 读取文件内容并将其解析为JsonObject
-            String value = FileUtils.readFileToString(path.toFile(), StandardCharsets.UTF_8);
-            return GsonHelper.parse(value);
+            try (InputStream stream = new BufferedInputStream(Files.newInputStream(path))) {
+                // 读取文件头判断格式，之后回到文件开头
+                byte[] header = new byte[RGBinaryConfig.MAGIC.length];
+                stream.mark(header.length);
+                int length = stream.readNBytes(header, 0, header.length);
+                stream.reset();
+                if (RGBinaryConfig.isBinary(header, length)) return RGBinaryConfig.read(stream);
+                // 直接从文件流解析JsonObject，不读取为中间字符串
+                return GsonHelper.parse(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            }
         } catch (IOException e) {
             // 如果读取文件失败，则抛出自定义异常
             throw new RGRuleException("Failed to read rolling gate config file", e);
         }
     }
 
+    /**
+     * 将旧的配置文件复制到新的路径，只在新文件不存在而旧文件存在时复制，旧文件保持不变
+     *
+     * @param legacy 旧的配置文件路径
+     * @param target 新的配置文件路径
+     */
+    public static void migrateLegacy(@NotNull Path legacy, @NotNull Path target) {
+        if (Files.exists(target) || !Files.isRegularFile(legacy)) return;
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Files.copy(legacy, target);
+            RollingGate.LOGGER.info("Migrated rolling gate config {} to {}", legacy, target);
+        } catch (IOException e) {
+            RollingGate.LOGGER.error("Failed to migrate rolling gate config {} to {}", legacy, target, e);
+        }
+    }
+
     /**
      * 将内容写入指定的文件路径
      *
@@ -56,5 +92,62 @@ public class ConfigUtil {
             throw new RGRuleException("Failed to write rolling gate config file", e);
         }
     }
-}
 
+    /**
+     * 将内容原子地写入指定的文件路径
+     *
+     * @param path 文件路径，不得为空
+     * @param content 要写入的内容，不能为空
+     * @throws RGRuleException 如果写入文件失败，则抛出异常并说明原因
+     */
+    public static void writeContentAtomically(@NotNull Path path, @NotNull String content) {
+        ConfigUtil.writeContentAtomically(path, stream -> stream.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 将内容原子地写入指定的文件路径
+     * 内容会先以流的方式写入同目录下的临时文件并强制落盘，再重命名覆盖目标文件，
+     * 避免断电后重命名已经生效而文件内容尚未写入磁盘
+     *
+     * @param path 文件路径，不得为空
+     * @param content 内容写入器，不能为空
+     * @throws RGRuleException 如果写入文件失败，则抛出异常并说明原因
+     */
+    public static void writeContentAtomically(@NotNull Path path, @NotNull ContentWriter content) {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            // 先将内容写入临时文件
+            Path parent = temp.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(channel));
+                content.write(stream);
+                stream.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                // 文件系统不支持原子移动时退化为普通覆盖
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // 如果写入文件失败，则抛出自定义异常
+            throw new RGRuleException("Failed to write rolling gate config file", e);
+        }
+    }
+
+    /**
+     * 内容写入器，以流的方式将内容写入文件，可以输出文本或二进制内容
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * 将内容写入指定的输出流
+         *
+         * @param stream 文件输出流
+         * @throws IOException 如果写入失败
+         */
+        void write(@NotNull OutputStream stream) throws IOException;
+    }
+}
@@ -0,0 +1,145 @@
+package dev.anvilcraft.rg.api;
+
+import dev.anvilcraft.rg.RollingGate;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ConfigWriter类在后台线程中写入配置文件
+ * <p>
+ * 同一文件在防抖窗口内的多次写入请求只会产生一次写入，且总是写入最新的内容。
+ * 文件通过临时文件与原子重命名写入，避免写入中途崩溃导致配置损坏
+ */
+public class ConfigWriter {
+    // 防抖窗口，单位为毫秒
+    public static final long DEBOUNCE_MILLIS = 500;
+    // 等待写入完成的最长时间，单位为秒
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+    // 单线程执行器，保证同一文件的写入顺序
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RollingGate Config Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 等待写入的文件及其内容
+    private static final Map<Path, ConfigUtil.ContentWriter> PENDING = new ConcurrentHashMap<>();
+    // 由本类写入的文件及写入后的修改时间，用于区分外部修改
+    private static final Map<Path, FileTime> WRITTEN = new ConcurrentHashMap<>();
+
+    /**
+     * 计划写入文件，在防抖窗口结束时写入最近一次提交的内容
+     * <p>
+     * 内容写入器会在后台线程中调用，因此它只能访问调用方已复制的数据
+     *
+     * @param path    文件路径
+     * @param content 文件内容写入器
+     */
+    public static void schedule(@NotNull Path path, @NotNull ConfigUtil.ContentWriter content) {
+        if (PENDING.put(path, content) != null) return;
+        EXECUTOR.schedule(() -> ConfigWriter.write(path), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 放弃文件尚未执行的计划写入，用于即将被更新的内容覆盖的情况
+     *
+     * @param path 文件路径
+     */
+    public static void discard(@NotNull Path path) {
+        PENDING.remove(path);
+    }
+
+    /**
+     * 提交一个在后台线程中立即执行的写入任务，任务按提交顺序执行
+     *
+     * @param task 写入任务
+     */
+    public static void submit(@NotNull Runnable task) {
+        EXECUTOR.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                RollingGate.LOGGER.error(e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 立即写入所有等待中的文件，并等待包括已提交任务在内的写入完成
+     */
+    public static void flush() {
+        try {
+            EXECUTOR.submit(() -> {
+                for (Path path : new ArrayList<>(PENDING.keySet())) {
+                    ConfigWriter.write(path);
+                }
+            }).get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            RollingGate.LOGGER.error("Failed to flush rolling gate config files", e);
+        }
+    }
+
+    /**
+     * 写入单个文件，如果文件已被写入则忽略
+     *
+     * @param path 文件路径
+     */
+    private static void write(@NotNull Path path) {
+        ConfigUtil.ContentWriter content = PENDING.remove(path);
+        if (content == null) return;
+        try {
+            ConfigUtil.writeContentAtomically(path, content);
+            ConfigWriter.markWritten(path);
+        } catch (RGRuleException e) {
+            RollingGate.LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 记录文件由卷帘门自身写入，应在写入线程中写入完成后调用
+     *
+     * @param path 文件路径
+     */
+    public static void markWritten(@NotNull Path path) {
+        path = path.toAbsolutePath().normalize();
+        try {
+            if (Files.exists(path)) {
+                WRITTEN.put(path, Files.getLastModifiedTime(path));
+            } else {
+                WRITTEN.remove(path);
+            }
+        } catch (IOException e) {
+            WRITTEN.remove(path);
+        }
+    }
+
+    /**
+     * 检查文件当前的内容是否由卷帘门自身写入
+     *
+     * @param path 文件路径
+     * @return 如果文件自上次写入后未被外部修改则返回true
+     */
+    public static boolean isWrittenByUs(@NotNull Path path) {
+        path = path.toAbsolutePath().normalize();
+        try {
+            FileTime time = WRITTEN.get(path);
+            if (!Files.exists(path)) return time == null;
+            return time != null && time.equals(Files.getLastModifiedTime(path));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -8,12 +8,29 @@ import net.neoforged.fml.IExtensionPoint;
  * RGAdditional接口扩展了IExtensionPoint接口，旨在提供一个扩展点，
  * 用于在服务器和客户端加载特定规则。这个接口允许实现类
  * 在需要时自定义规则加载逻辑
+ * <p>
+ * 默认情况下各个模组的 {@link #loadServerRules} 与 {@link #loadClientRules} 在加载完成事件的线程中依次调用。
+ * 覆盖 {@link #parallelLoading()} 返回true的实现会在ForkJoin公共线程池中与其他模组并行调用，
+ * 这样的实现应当只向传入的管理器注册规则、读取自身的资源，不能访问游戏状态或其他模组的共享数据，
+ * 修改自身的静态状态时需要自行同步
  */
 public interface RGAdditional extends IExtensionPoint {
 
+    /**
+     * 是否允许在ForkJoin公共线程池中与其他模组并行加载规则
+     * 返回false时，规则加载方法在所有并行任务完成后于加载完成事件的线程中调用，规则的合并顺序不变
+     * 只有确认加载方法满足上述线程安全要求时才应返回true
+     *
+     * @return 默认返回false
+     */
+    default boolean parallelLoading() {
+        return false;
+    }
+
     /**
      * 为服务器端加载规则提供了一个默认方法。这个方法在服务器规则管理器中
      * 提供了一个接入点，实现类可以覆盖此方法以加载自定义的服务器规则
+     * 启用并行加载时在ForkJoin公共线程池中调用，必须是线程安全的，不能访问游戏状态，见 {@link #parallelLoading()}
      *
      * @param manager 服务器规则管理器，用于操作和管理服务器规则
      */
@@ -23,6 +40,7 @@ public interface RGAdditional extends IExtensionPoint {
     /**
      * 为客户端加载规则提供了一个默认方法。这个方法在客户端规则管理器中
      * 提供了一个接入点，实现类可以覆盖此方法以加载自定义的客户端规则
+     * 启用并行加载时在ForkJoin公共线程池中调用，必须是线程安全的，不能访问游戏状态，见 {@link #parallelLoading()}
      *
      * @param manager 客户端规则管理器，用于操作和管理客户端规则
      */
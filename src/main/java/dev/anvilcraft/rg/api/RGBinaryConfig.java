@@ -0,0 +1,172 @@
+package dev.anvilcraft.rg.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RGBinaryConfig类实现紧凑的二进制规则配置格式
+ * <p>
+ * 文件以4字节的魔数开头，随后是条目数量和条目。每个条目由规则的序列化名称、
+ * 1字节的类型标签和值组成，整数使用zigzag变长编码，字符串使用长度前缀的UTF-8编码。
+ * 读取结果与JSON配置相同，因此可以直接交给规则管理器处理
+ */
+public class RGBinaryConfig {
+    // 文件魔数，JSON文件不会以此开头
+    public static final byte[] MAGIC = {'R', 'G', 'B', 1};
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INTEGER = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte STRING = 6;
+    // 单个字符串的最大字节数，超过时视为文件损坏，避免按损坏的长度分配内存
+    public static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    /**
+     * 检查文件头是否为二进制配置的魔数
+     *
+     * @param header 文件开头的字节
+     * @param length 有效字节数
+     * @return 如果是二进制配置则返回true
+     */
+    public static boolean isBinary(byte @NotNull [] header, int length) {
+        return length >= MAGIC.length && Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    /**
+     * 写入二进制配置
+     *
+     * @param stream  输出流
+     * @param entries 按序列化名称排序的配置条目
+     * @throws IOException 如果写入失败
+     */
+    public static void write(@NotNull OutputStream stream, @NotNull List<Map.Entry<String, Object>> entries) throws IOException {
+        DataOutputStream output = new DataOutputStream(stream);
+        output.write(MAGIC);
+        RGBinaryConfig.writeVarLong(output, entries.size());
+        for (Map.Entry<String, Object> entry : entries) {
+            RGBinaryConfig.writeString(output, entry.getKey());
+            RGBinaryConfig.writeValue(output, entry.getValue());
+        }
+        output.flush();
+    }
+
+    /**
+     * 读取二进制配置，调用前流的位置应位于魔数之前
+     *
+     * @param stream 输入流
+     * @return 与JSON配置等价的JsonObject
+     * @throws IOException 如果读取失败或格式不正确
+     */
+    public static @NotNull JsonObject read(@NotNull InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        byte[] magic = new byte[MAGIC.length];
+        input.readFully(magic);
+        if (!RGBinaryConfig.isBinary(magic, magic.length)) throw new IOException("Not a rolling gate binary config");
+        JsonObject result = new JsonObject();
+        long count = RGBinaryConfig.readVarLong(input);
+        if (count < 0) throw new IOException("Corrupt rolling gate binary config: invalid entry count %d".formatted(count));
+        for (long i = 0; i < count; i++) {
+            String key = RGBinaryConfig.readString(input);
+            result.add(key, RGBinaryConfig.readValue(input));
+        }
+        return result;
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Boolean bool) {
+            output.writeByte(bool ? TRUE : FALSE);
+        } else if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+            long number = ((Number) value).longValue();
+            output.writeByte(INTEGER);
+            RGBinaryConfig.writeVarLong(output, (number << 1) ^ (number >> 63));
+        } else if (value instanceof Float number) {
+            output.writeByte(FLOAT);
+            output.writeFloat(number);
+        } else if (value instanceof Double number) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(number);
+        } else if (value instanceof String string) {
+            output.writeByte(STRING);
+            RGBinaryConfig.writeString(output, string);
+        } else {
+            // 自定义类型按其JSON表示以字符串保存
+            JsonElement element = RGRuleManager.GSON.toJsonTree(value);
+            output.writeByte(STRING);
+            RGBinaryConfig.writeString(output, element.isJsonPrimitive() ? element.getAsString() : element.toString());
+        }
+    }
+
+    private static @NotNull JsonElement readValue(DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        return switch (tag) {
+            case NULL -> JsonNull.INSTANCE;
+            case FALSE -> new JsonPrimitive(false);
+            case TRUE -> new JsonPrimitive(true);
+            case INTEGER -> new JsonPrimitive(RGBinaryConfig.decodeZigZag(RGBinaryConfig.readVarLong(input)));
+            case FLOAT -> new JsonPrimitive(input.readFloat());
+            case DOUBLE -> new JsonPrimitive(input.readDouble());
+            case STRING -> new JsonPrimitive(RGBinaryConfig.readString(input));
+            default -> throw new IOException("Unknown value tag %d in rolling gate binary config".formatted(tag));
+        };
+    }
+
+    private static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(DataOutputStream output, @NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        RGBinaryConfig.writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static @NotNull String readString(DataInputStream input) throws IOException {
+        long length = RGBinaryConfig.readVarLong(input);
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("Corrupt rolling gate binary config: invalid string length %d".formatted(length));
+        }
+        // 按实际读到的字节分配内存，长度超过剩余字节数时不会预先分配整个数组
+        byte[] bytes = input.readNBytes((int) length);
+        if (bytes.length < length) {
+            throw new IOException("Corrupt rolling gate binary config: string length %d exceeds remaining %d bytes".formatted(length, bytes.length));
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.read();
+            if (b < 0) throw new EOFException();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("VarLong is too big in rolling gate binary config");
+    }
+}
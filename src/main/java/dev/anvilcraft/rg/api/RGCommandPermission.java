@@ -0,0 +1,48 @@
+package dev.anvilcraft.rg.api;
+
+import net.minecraft.commands.CommandSourceStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * RGCommandPermission类是由命令规则预先编译的权限判断，可以直接用作命令的requires
+ * <p>
+ * 判断时只读取一个volatile字段并比较权限级别，不调用供应商也不匹配字符串。
+ * 规则的值变化后，变更监听器重新编译并整体替换内部的判断
+ */
+public final class RGCommandPermission implements Predicate<CommandSourceStack> {
+    // 每个规则共享同一个实例
+    private static final Map<RGRule<?>, RGCommandPermission> PERMISSIONS = new ConcurrentHashMap<>();
+    // 当前规则值编译出的判断
+    private volatile Predicate<CommandSourceStack> compiled;
+
+    private RGCommandPermission(@NotNull RGRule<?> rule) {
+        this.compiled = RGValidator.CommandRuleValidator.compile(String.valueOf(rule.getValue()));
+    }
+
+    /**
+     * 获取命令规则的权限判断
+     * 规则应当是已经注册到规则管理器中的实例，即通过 {@link RGRuleManager#getRule(String, String)} 获取的规则，
+     * 否则规则值变化时判断不会更新
+     *
+     * @param rule 命令规则
+     * @return 权限判断
+     */
+    public static @NotNull RGCommandPermission of(@NotNull RGRule<?> rule) {
+        return RGCommandPermission.PERMISSIONS.computeIfAbsent(rule, RGCommandPermission::create);
+    }
+
+    private static <T> @NotNull RGCommandPermission create(@NotNull RGRule<T> rule) {
+        RGCommandPermission permission = new RGCommandPermission(rule);
+        rule.onChange((r, oldValue, newValue, server) -> permission.compiled = RGValidator.CommandRuleValidator.compile(String.valueOf(newValue)));
+        return permission;
+    }
+
+    @Override
+    public boolean test(@NotNull CommandSourceStack stack) {
+        return this.compiled.test(stack);
+    }
+}
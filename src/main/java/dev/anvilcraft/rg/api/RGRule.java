@@ -3,10 +3,14 @@ package dev.anvilcraft.rg.api;
 import com.google.gson.JsonElement;
 import dev.anvilcraft.rg.RollingGate;
 import dev.anvilcraft.rg.api.event.RGRuleChangeEvent;
+import net.minecraft.server.MinecraftServer;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.server.ServerLifecycleHooks;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -16,12 +20,14 @@ import java.util.Map;
 
 /**
  * RGRule类用于定义和管理配置规则它是一个泛型记录类，用于存储配置项的相关信息和操作逻辑
+ * 每个字段只对应一个规则对象，规则在分区中的序号由 {@link RGRulePartition} 保存
  *
  * @param <T> 配置项的类型
  */
 public record RGRule<T>(String namespace, Class<T> type, RGEnvironment environment, String[] categories,
                         String serialize, String[] allowed,
-                        List<RGValidator<T>> validators, T defaultValue, Field field, RGCodec<T> codec) {
+                        List<RGValidator<T>> validators, T defaultValue, Field field, RGCodec<T> codec,
+                        VarHandle handle, RGStableValue stable, RGRuleListeners<T> listeners) {
 
     /**
      * CODECS映射用于存储支持的类型及其对应的编解码器
@@ -53,7 +59,6 @@ public record RGRule<T>(String namespace, Class<T> type, RGEnvironment environme
      * @return 新创建的RGRule实例
      * @throws RGRuleException 如果配置项不合法或不支持，则抛出此异常
      */
-    @SuppressWarnings("unchecked")
     public static <T> @NotNull RGRule<T> of(String namespace, @NotNull Field field) {
         String name = field.getName();
         // 检查配置项是否是静态的
@@ -62,50 +67,127 @@ public record RGRule<T>(String namespace, Class<T> type, RGEnvironment environme
         if (!Modifier.isPublic(field.getModifiers())) throw RGRuleException.notPublic(name);
         // 检查配置项是否不是final的
         if (Modifier.isFinal(field.getModifiers())) throw RGRuleException.beFinal(name);
-        Class<?> type = RGRule.checkType(field);
+        RGRule.checkType(field);
         Rule rule = field.getAnnotation(Rule.class);
         // 确保配置项上有Rule注解
         if (rule == null) throw RGRuleException.notAnnotated(name);
-        String serialize = rule.serialize().isEmpty() ? RGRule.caseToSnake(name) : rule.serialize();
-        RGRule.checkSerialize(serialize);
-        List<RGValidator<T>> validators = new ArrayList<>();
+        List<RGValidator<?>> validators = new ArrayList<>();
         // 实例化所有验证器
         for (Class<?> validator : rule.validator()) {
             try {
-                validators.add((RGValidator<T>) validator.getDeclaredConstructor().newInstance());
+                validators.add((RGValidator<?>) validator.getDeclaredConstructor().newInstance());
             } catch (Exception e) {
                 RollingGate.LOGGER.error(e.getMessage(), e);
             }
         }
+        return RGRule.of(namespace, field, rule.env(), rule.categories(), rule.serialize(), rule.allowed(), rule.stable(), validators);
+    }
+
+    /**
+     * 使用已知的注解参数创建一个新的RGRule实例
+     * <p>
+     * 此方法不会检查字段修饰符，也不会读取注解或反射创建验证器，
+     * 供编译期生成的 {@link RGRuleRegistry} 使用，相关检查已在编译期完成
+     *
+     * @param namespace  命名空间，用于区分不同的配置范围
+     * @param field      配置项对应的Field对象
+     * @param env        配置项适用的环境
+     * @param categories 配置项所属的类别
+     * @param serialize  配置项的序列化名称，为空时根据字段名生成
+     * @param allowed    配置项允许的值
+     * @param stable     配置项是否为稳定规则
+     * @param validators 配置项使用的验证器
+     * @param <T>        配置项的类型
+     * @return 新创建的RGRule实例
+     * @throws RGRuleException 如果配置项不合法或不支持，则抛出此异常
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull RGRule<T> of(
+        String namespace, @NotNull Field field, RGEnvironment env, String[] categories, @NotNull String serialize,
+        String[] allowed, boolean stable, @NotNull List<? extends RGValidator<?>> validators
+    ) {
+        String name = field.getName();
+        Class<?> type = RGRule.checkType(field);
+        if (serialize.isEmpty()) serialize = RGRule.caseToSnake(name);
+        RGRule.checkSerialize(serialize);
+        List<RGValidator<T>> ruleValidators = new ArrayList<>();
+        for (RGValidator<?> validator : validators) {
+            ruleValidators.add((RGValidator<T>) validator);
+        }
         RGCodec<?> rgCodec = RGRule.CODECS.getOrDefault(type.getTypeName(), null);
         // 确保类型支持
         if (rgCodec == null) {
             throw RGRuleException.unsupportedType(name, type);
         } else if (rgCodec.clazz() == Boolean.class) {
             // 为Boolean类型添加默认验证器
-            validators.add((RGValidator<T>) new RGValidator.BooleanValidator());
-        } else if (rgCodec.clazz() == String.class && validators.isEmpty()) {
+            ruleValidators.add((RGValidator<T>) new RGValidator.BooleanValidator());
+        } else if (rgCodec.clazz() == String.class && ruleValidators.isEmpty()) {
             // 为String类型添加默认验证器
-            validators.add((RGValidator<T>) new RGValidator.StringValidator());
+            ruleValidators.add((RGValidator<T>) new RGValidator.StringValidator());
+        }
+        VarHandle handle;
+        try {
+            // 创建字段句柄，后续读写不再经过反射
+            handle = MethodHandles.lookup().unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw RGRuleException.illegalAccess(name);
         }
         try {
             return new RGRule<>(
                 namespace,
                 (Class<T>) type,
-                rule.env(),
-                rule.categories(),
+                env,
+                categories,
                 serialize,
-                rule.allowed(),
-                validators,
-                (T) field.get(null),
+                allowed,
+                ruleValidators,
+                (T) handle.get(),
                 field,
-                (RGCodec<T>) rgCodec
+                (RGCodec<T>) rgCodec,
+                handle,
+                stable ? new RGStableValue(handle) : null,
+                new RGRuleListeners<>()
             );
         } catch (Exception e) {
             throw RGRuleException.createRuleFailed(name);
         }
     }
 
+    /**
+     * 订阅规则值的变化
+     * 监听器在新值写入字段之后直接调用，不经过NeoForge事件总线；没有监听器时不会产生任何额外开销
+     *
+     * @param listener 监听器
+     * @return 当前规则
+     */
+    public @NotNull RGRule<T> onChange(@NotNull RGRuleChangeListener<T> listener) {
+        this.listeners.onChange(listener);
+        return this;
+    }
+
+    /**
+     * 获取规则值的版本，每次写入新值后递增，可以用于判断依赖规则值的缓存是否过期
+     *
+     * @return 规则值的版本
+     */
+    public long version() {
+        return this.listeners.getVersion();
+    }
+
+    /**
+     * 每个规则对象代表唯一的配置项，比较时只比较对象本身，
+     * 避免在映射表中使用规则时计算数组、字段与验证器列表的哈希
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
     /**
      * 获取配置项的名称
      *
@@ -119,15 +201,93 @@ public record RGRule<T>(String namespace, Class<T> type, RGEnvironment environme
      * 获取配置项的当前值
      *
      * @return 配置项的值
-     * @throws RGRuleException 如果无法访问配置项的值，则抛出此异常
      */
     @SuppressWarnings("unchecked")
     public T getValue() {
-        try {
-            return (T) this.field.get(null);
-        } catch (IllegalAccessException e) {
-            throw RGRuleException.illegalAccess(this.name());
-        }
+        return (T) this.handle.get();
+    }
+
+    /**
+     * 获取读取配置项的方法句柄
+     * <p>
+     * 对于稳定规则，返回的句柄指向由SwitchPoint保护的常量调用点，将其存入 static final 字段后
+     * 通过 invokeExact 调用即可被JIT常量折叠；对于普通规则，返回直接读取字段的句柄
+     *
+     * @return 无参数、返回字段类型的方法句柄
+     */
+    public @NotNull MethodHandle getInvoker() {
+        if (this.stable != null) return this.stable.invoker();
+        return this.handle.toMethodHandle(VarHandle.AccessMode.GET);
+    }
+
+    /**
+     * 以boolean类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为boolean
+     */
+    public boolean getBoolean() {
+        return (boolean) this.handle.get();
+    }
+
+    /**
+     * 以byte类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为byte
+     */
+    public byte getByte() {
+        return (byte) this.handle.get();
+    }
+
+    /**
+     * 以short类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为short
+     */
+    public short getShort() {
+        return (short) this.handle.get();
+    }
+
+    /**
+     * 以int类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为int
+     */
+    public int getInt() {
+        return (int) this.handle.get();
+    }
+
+    /**
+     * 以long类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为long
+     */
+    public long getLong() {
+        return (long) this.handle.get();
+    }
+
+    /**
+     * 以float类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为float
+     */
+    public float getFloat() {
+        return (float) this.handle.get();
+    }
+
+    /**
+     * 以double类型读取配置项的当前值，不会产生装箱
+     *
+     * @return 配置项的值
+     * @throws java.lang.invoke.WrongMethodTypeException 如果配置项类型无法转换为double
+     */
+    public double getDouble() {
+        return (double) this.handle.get();
     }
 
 
@@ -186,28 +346,89 @@ public record RGRule<T>(String namespace, Class<T> type, RGEnvironment environme
      * @param value 要设置的字段值
      * @throws RGRuleException 当值无法被设置时抛出异常
      */
-    @SuppressWarnings("unchecked")
     public void setFieldValue(String value) {
-        try {
-            for (RGValidator<T> validator : this.validators) {
-                if (!validator.validate((T) this.field.get(null), value)) {
-                    throw new RGRuleException("Illegal value: %s, reason: %s", value, validator.reason());
-                }
-            }
-            RGRuleChangeEvent<T> event;
-            if (this.environment().isServer()) {
-                event = new RGRuleChangeEvent.Server<>(this, this.getValue(), this.codec.decode(value), ServerLifecycleHooks.getCurrentServer());
-            } else {
-                event = new RGRuleChangeEvent.Client<>(this, this.getValue(), this.codec.decode(value));
+        this.validate(value);
+        RGRuleChangeEvent<T> event = this.postChangeEvent(this.getValue(), this.codec.decode(value), ServerLifecycleHooks.getCurrentServer());
+        if (event.isCanceled()) return;
+        T oldValue = this.getValue();
+        this.commitValue(event.getNewValue());
+        this.notifyCommitted();
+        this.notifyChanged(oldValue, event.getNewValue());
+    }
+
+    /**
+     * 发布可以取消的规则变更事件，不会修改字段
+     *
+     * @param oldValue 旧值
+     * @param newValue 新值
+     * @param server   服务器实例，客户端规则忽略此参数
+     * @return 已发布的事件，监听者可能修改了新值或取消了事件
+     */
+    @NotNull RGRuleChangeEvent<T> postChangeEvent(T oldValue, T newValue, MinecraftServer server) {
+        RGRuleChangeEvent<T> event;
+        if (this.environment().isServer()) {
+            event = new RGRuleChangeEvent.Server<>(this, oldValue, newValue, server);
+        } else {
+            event = new RGRuleChangeEvent.Client<>(this, oldValue, newValue);
+        }
+        NeoForge.EVENT_BUS.post(event);
+        return event;
+    }
+
+    /**
+     * 使用规则的验证器检查新值，不会修改字段
+     *
+     * @param value 新值的序列化字符串
+     * @throws RGRuleException 当新值非法时抛出异常
+     */
+    public void validate(String value) {
+        for (RGValidator<T> validator : this.validators) {
+            if (!validator.validate(this.getValue(), value)) {
+                throw new RGRuleException("Illegal value: %s, reason: %s", value, validator.reason());
             }
-            NeoForge.EVENT_BUS.post(event);
-            if (event.isCanceled()) return;
-            this.field.set(null, event.getNewValue());
-        } catch (IllegalAccessException e) {
+        }
+    }
+
+    /**
+     * 将已经通过验证的值写入字段并递增值的版本，不会发布变更事件，也不会执行任何回调
+     * 写入成功后由调用者通过 {@link #notifyCommitted()} 与 {@link #notifyChanged(Object, Object)} 通知
+     *
+     * @param value 新值
+     * @throws RGRuleException 当值无法被设置时抛出异常
+     */
+    void commitValue(Object value) {
+        if (this.stable != null) this.stable.invalidate();
+        try {
+            // volatile写入保证其他线程在读取到新快照后也能看到字段的新值
+            this.handle.setVolatile(value);
+        } catch (ClassCastException | NullPointerException e) {
             throw new RGRuleException("Illegal value: %s", value);
+        } finally {
+            if (this.stable != null) this.stable.rebind();
+            this.listeners.bumpVersion();
         }
     }
 
+    /**
+     * 执行新值生效后的回调，规则管理器借此发布新的快照
+     */
+    void notifyCommitted() {
+        this.listeners.fireCommitted();
+    }
+
+    /**
+     * 通知变更监听器，应当在写入成功后调用
+     *
+     * @param oldValue 旧值
+     * @param newValue 新值
+     */
+    @SuppressWarnings("unchecked")
+    void notifyChanged(Object oldValue, Object newValue) {
+        if (!this.listeners.hasChangeListeners()) return;
+        MinecraftServer server = this.environment.isServer() ? ServerLifecycleHooks.getCurrentServer() : null;
+        this.listeners.fireChanged(this, (T) oldValue, (T) newValue, server);
+    }
+
     /**
      * 设置字段的值
      *
@@ -0,0 +1,23 @@
+package dev.anvilcraft.rg.api;
+
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 规则值变化的监听器，通过 {@link RGRule#onChange(RGRuleChangeListener)} 订阅单个规则
+ * 监听器在新值写入字段之后调用，不经过NeoForge事件总线
+ *
+ * @param <T> 规则值的类型
+ */
+@FunctionalInterface
+public interface RGRuleChangeListener<T> {
+    /**
+     * 规则值已经变化
+     *
+     * @param rule     发生变更的规则
+     * @param oldValue 规则的旧值
+     * @param newValue 规则的新值
+     * @param server   服务器实例，客户端规则或服务器未运行时为null
+     */
+    void onChange(RGRule<T> rule, T oldValue, T newValue, @Nullable MinecraftServer server);
+}
@@ -0,0 +1,100 @@
+package dev.anvilcraft.rg.api;
+
+import dev.anvilcraft.rg.RollingGate;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RGRuleListeners类保存规则值写入字段之后需要执行的回调
+ * <p>
+ * 与可以取消的 {@link dev.anvilcraft.rg.api.event.RGRuleChangeEvent} 不同，这些回调在新值生效之后执行：
+ * 单个规则在写入成功后执行，事务在所有规则写入成功后才执行，回滚的写入不会触发任何回调。
+ * 变更监听器由模组通过 {@link RGRule#onChange(RGRuleChangeListener)} 订阅，注册前后订阅的监听器都会收到通知；
+ * 生效回调供规则管理器发布新的规则快照，只有最后注册该规则的管理器的回调会被执行，
+ * 并行加载时临时管理器的回调会在合并后被替换
+ *
+ * @param <T> 规则值的类型
+ */
+public class RGRuleListeners<T> {
+    // 订阅该规则的变更监听器
+    private final List<RGRuleChangeListener<T>> changed = new CopyOnWriteArrayList<>();
+    // 新值生效后执行的回调
+    private volatile Runnable committed = null;
+    // 值的版本，每次写入新值后递增
+    private volatile long version = 0;
+
+    RGRuleListeners() {
+    }
+
+    /**
+     * 添加变更监听器
+     *
+     * @param listener 监听器
+     */
+    void onChange(@NotNull RGRuleChangeListener<T> listener) {
+        this.changed.add(listener);
+    }
+
+    /**
+     * 设置新值生效后执行的回调，替换之前设置的回调
+     *
+     * @param callback 回调
+     */
+    void setCommitted(@NotNull Runnable callback) {
+        this.committed = callback;
+    }
+
+    /**
+     * 获取值的版本
+     *
+     * @return 值的版本，每次写入新值后递增
+     */
+    long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * 检查是否有变更监听器
+     *
+     * @return 如果有变更监听器则返回true
+     */
+    boolean hasChangeListeners() {
+        return !this.changed.isEmpty();
+    }
+
+    /**
+     * 递增值的版本，每次写入字段后调用，包括回滚时的写入
+     */
+    void bumpVersion() {
+        this.version++;
+    }
+
+    /**
+     * 执行新值生效后的回调
+     */
+    void fireCommitted() {
+        Runnable callback = this.committed;
+        if (callback != null) callback.run();
+    }
+
+    /**
+     * 通知所有变更监听器，单个监听器抛出的异常不会影响其他监听器
+     *
+     * @param rule     发生变更的规则
+     * @param oldValue 规则的旧值
+     * @param newValue 规则的新值
+     * @param server   服务器实例，可以为null
+     */
+    void fireChanged(RGRule<T> rule, T oldValue, T newValue, MinecraftServer server) {
+        for (RGRuleChangeListener<T> listener : this.changed) {
+            try {
+                listener.onChange(rule, oldValue, newValue, server);
+            } catch (RuntimeException e) {
+                RollingGate.LOGGER.error("Exception in change listener of rule {}", rule.name(), e);
+            }
+        }
+    }
+}
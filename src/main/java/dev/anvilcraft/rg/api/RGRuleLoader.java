@@ -0,0 +1,92 @@
+package dev.anvilcraft.rg.api;
+
+import dev.anvilcraft.rg.RollingGate;
+import net.neoforged.fml.ModList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * RGRuleLoader类负责在加载完成时从所有模组收集规则
+ * <p>
+ * 每个模组的规则先注册到独立的临时管理器，{@link RGAdditional#parallelLoading()} 返回true的模组在ForkJoin公共线程池中注册，
+ * 反射、验证器创建与语言文件解析并行执行；其余模组在并行任务完成后于调用线程中依次注册。
+ * 随后在调用线程中按模组列表的顺序合并到目标管理器，检测冲突并保证注册结果与顺序无关
+ */
+public class RGRuleLoader {
+    /**
+     * 并行加载所有模组的规则并合并到目标管理器
+     *
+     * @param target  目标规则管理器
+     * @param staging 根据模组ID创建临时管理器的函数
+     * @param loader  调用模组扩展点注册规则的函数
+     * @param <M>     规则管理器的类型
+     * @throws RGRuleException 如果任何模组注册规则失败，则在合并其他模组的规则后抛出此异常
+     */
+    public static <M extends RGRuleManager> void load(
+        @NotNull M target, @NotNull Function<String, M> staging, @NotNull BiConsumer<RGAdditional, M> loader
+    ) {
+        long start = System.nanoTime();
+        // 扩展点的查找在调用线程中按模组列表顺序完成
+        List<Map.Entry<String, RGAdditional>> additions = new ArrayList<>();
+        ModList.get().forEachModContainer((modId, modContainer) -> {
+            Optional<RGAdditional> additional = modContainer.getCustomExtension(RGAdditional.class);
+            additional.ifPresent(add -> additions.add(Map.entry(modId, add)));
+        });
+        // 有序流的toList保持模组顺序，合并结果与各任务的完成顺序无关
+        List<Staged<M>> stagedList = new ArrayList<>(additions.parallelStream()
+            .map(entry -> entry.getValue().parallelLoading() ? RGRuleLoader.stage(entry.getKey(), entry.getValue(), staging, loader) : null)
+            .toList());
+        // 不允许并行加载的模组在调用线程中依次加载，保持原来的位置
+        for (int i = 0; i < stagedList.size(); i++) {
+            if (stagedList.get(i) != null) continue;
+            Map.Entry<String, RGAdditional> entry = additions.get(i);
+            stagedList.set(i, RGRuleLoader.stage(entry.getKey(), entry.getValue(), staging, loader));
+        }
+        RGRuleException failure = null;
+        for (Staged<M> staged : stagedList) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(staged.nanos());
+            if (staged.error() != null) {
+                RollingGate.LOGGER.error("Failed to load rules from {} after {} ms", staged.modId(), millis, staged.error());
+                if (failure == null) failure = new RGRuleException("Failed to load rules from %s".formatted(staged.modId()), staged.error());
+                continue;
+            }
+            int count = target.merge(staged.manager());
+            RollingGate.LOGGER.info("Loaded {} {} rule(s) from {} in {} ms", count, target.environment.name().toLowerCase(), staged.modId(), millis);
+        }
+        RollingGate.LOGGER.info("Loaded rules from {} mod(s) in {} ms", stagedList.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (failure != null) throw failure;
+    }
+
+    private static <M extends RGRuleManager> @NotNull Staged<M> stage(
+        String modId, RGAdditional additional, @NotNull Function<String, M> staging, @NotNull BiConsumer<RGAdditional, M> loader
+    ) {
+        long start = System.nanoTime();
+        M manager = staging.apply(modId);
+        manager.setNamespace(modId);
+        try {
+            loader.accept(additional, manager);
+            return new Staged<>(modId, manager, System.nanoTime() - start, null);
+        } catch (RuntimeException | LinkageError e) {
+            return new Staged<>(modId, manager, System.nanoTime() - start, e);
+        }
+    }
+
+    /**
+     * 单个模组的加载结果
+     *
+     * @param modId   模组ID
+     * @param manager 注册了该模组规则的临时管理器
+     * @param nanos   加载耗时，单位为纳秒
+     * @param error   加载失败的原因，成功时为null
+     * @param <M>     规则管理器的类型
+     */
+    private record Staged<M extends RGRuleManager>(String modId, M manager, long nanos, Throwable error) {
+    }
+}
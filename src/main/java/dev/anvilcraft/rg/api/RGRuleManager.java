@@ -4,20 +4,31 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
 import dev.anvilcraft.rg.RollingGate;
 import lombok.Setter;
 import net.neoforged.fml.loading.FMLPaths;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.OutputStreamWriter;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * RollingGate规则管理器，负责处理和存储规则配置
@@ -27,19 +38,22 @@ public class RGRuleManager {
     public static final Gson GSON;
     // 环境对象，用于确定当前环境（客户端或服务器）
     protected final RGEnvironment environment;
-    // 存储规则的映射表
-    protected final Map<String, RGRule<?>> rules = new HashMap<>();
+    // 按命名空间划分的规则分区，保持注册顺序
+    protected final Map<String, RGRulePartition> partitions = new LinkedHashMap<>();
     // 管理器的命名空间
     protected final String managerNamespace;
-    // 全局配置文件路径
-    protected final Path globalConfigPath;
-    // 全局配置映射表
-    protected final Map<RGRule<?>, Object> globalConfig = new HashMap<>();
     // 默认命名空间
     @Setter
     protected String namespace = "rolling_gate";
     // 存储规则类别的列表
     protected final Set<String> categories = new HashSet<>();
+    // 暂停发布快照的层数，批量修改期间只在结束时发布一次
+    private int publishSuspended = 0;
+    // 暂停期间有未发布修改的分区
+    private final Set<RGRulePartition> publishPending = new HashSet<>();
+
+    // 按类加载器缓存的编译期生成的注册表
+    private static final Map<ClassLoader, Map<Class<?>, RGRuleRegistry>> REGISTRIES = new ConcurrentHashMap<>();
 
     // 静态代码块，初始化Gson实例
     static {
@@ -62,55 +76,401 @@ public class RGRuleManager {
     public RGRuleManager(String namespace, @NotNull RGEnvironment environment) {
         this.managerNamespace = namespace;
         this.environment = environment;
-        // 根据命名空间和环境确定全局配置文件路径
-        this.globalConfigPath = FMLPaths.CONFIGDIR.get().resolve("%s%s.json".formatted(namespace, this.environment.isClient() ? "_client" : ""));
     }
 
     /**
-     * 从配置文件中设置规则，并返回设置的结果
+     * 创建命名空间的规则分区，子类可以覆盖此方法以保存额外的状态
+     *
+     * @param namespace 命名空间
+     * @return 新的规则分区
+     */
+    protected @NotNull RGRulePartition createPartition(@NotNull String namespace) {
+        return new RGRulePartition(namespace, this.getGlobalConfigPath(namespace));
+    }
+
+    /**
+     * 根据命名空间和环境确定全局配置文件路径
+     * 文件名使用 {@code .rg.json} 后缀，避免与模组自己的 {@code <modid>.json} 配置文件冲突
+     *
+     * @param namespace 命名空间
+     * @return 全局配置文件路径
+     */
+    protected @NotNull Path getGlobalConfigPath(@NotNull String namespace) {
+        return FMLPaths.CONFIGDIR.get().resolve("%s%s.rg.json".formatted(namespace, this.environment.isClient() ? "_client" : ""));
+    }
+
+    /**
+     * 获取分区之前管理器自身使用的全局配置文件路径，仅用于迁移
+     *
+     * @return 旧的全局配置文件路径
+     */
+    protected @NotNull Path getLegacyGlobalConfigPath() {
+        return FMLPaths.CONFIGDIR.get().resolve("%s%s.json".formatted(this.managerNamespace, this.environment.isClient() ? "_client" : ""));
+    }
+
+    /**
+     * 获取命名空间的规则分区，不存在时创建
+     *
+     * @param namespace 命名空间
+     * @return 规则分区
+     */
+    protected @NotNull RGRulePartition getPartition(@NotNull String namespace) {
+        return this.partitions.computeIfAbsent(namespace, this::createPartition);
+    }
+
+    /**
+     * 获取所有命名空间中的规则
+     *
+     * @return 按命名空间注册顺序排列的规则
+     */
+    public @NotNull List<RGRule<?>> getRules() {
+        List<RGRule<?>> result = new ArrayList<>();
+        for (RGRulePartition partition : this.partitions.values()) {
+            result.addAll(partition.getRules().values());
+        }
+        return result;
+    }
+
+    /**
+     * 根据命名空间和序列化名称获取规则，可用于在规则注册后订阅规则的变化
+     *
+     * @param namespace 命名空间
+     * @param serialize 规则的序列化名称
+     * @param <T>       规则值的类型
+     * @return 规则，如果不存在则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RGRule<T> getRule(@NotNull String namespace, @NotNull String serialize) {
+        RGRulePartition partition = this.partitions.get(namespace);
+        return partition == null ? null : (RGRule<T>) partition.getRule(serialize);
+    }
+
+    /**
+     * 获取按序列化名称索引的所有规则，对应分区之前的 {@code rules} 字段
+     * 不同命名空间中的同名规则只保留先注册的一个
      *
-     * @param config 配置文件内容
-     * @return 返回设置后的规则映射表
+     * @return 不可修改的规则映射表
+     * @deprecated 规则按命名空间分区保存，使用 {@link #getRules()} 或 {@link #getRule(String, String)}
      */
-    protected @NotNull Map<RGRule<?>, Object> setSaveRules(@NotNull JsonObject config) {
+    @Deprecated
+    protected @NotNull Map<String, RGRule<?>> getRuleMap() {
+        Map<String, RGRule<?>> result = new LinkedHashMap<>();
+        for (RGRulePartition partition : this.partitions.values()) {
+            partition.getRules().forEach(result::putIfAbsent);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 获取所有命名空间的全局配置，对应分区之前的 {@code globalConfig} 字段
+     *
+     * @return 不可修改的规则及其全局配置值的映射表
+     * @deprecated 全局配置按命名空间分区保存，使用 {@link #getGlobalValue(RGRule)}
+     */
+    @Deprecated
+    protected @NotNull Map<RGRule<?>, Object> getGlobalConfig() {
         Map<RGRule<?>, Object> result = new HashMap<>();
+        for (RGRulePartition partition : this.partitions.values()) {
+            partition.getGlobalConfig().forEach(result::put);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 获取管理器自身命名空间的全局配置文件路径，对应分区之前的 {@code globalConfigPath} 字段
+     *
+     * @return 全局配置文件路径
+     * @deprecated 每个命名空间使用独立的配置文件，使用 {@link #getGlobalConfigPath(String)}
+     */
+    @Deprecated
+    protected @NotNull Path getGlobalConfigPath() {
+        return this.getGlobalConfigPath(this.managerNamespace);
+    }
+
+    /**
+     * 获取规则在全局配置中的值
+     *
+     * @param rule 规则
+     * @return 全局配置中的值，如果未配置则返回null
+     */
+    public Object getGlobalValue(@NotNull RGRule<?> rule) {
+        RGRulePartition partition = this.partitions.get(rule.namespace());
+        return partition == null ? null : partition.getGlobalConfig().get(rule);
+    }
+
+    /**
+     * 获取命名空间当前的规则快照，可以在任何线程中调用
+     *
+     * @param namespace 命名空间
+     * @return 规则快照，如果命名空间不存在则返回null
+     */
+    public RGRuleSnapshot getSnapshot(@NotNull String namespace) {
+        RGRulePartition partition = this.partitions.get(namespace);
+        return partition == null ? null : partition.getSnapshot();
+    }
+
+    /**
+     * 发布规则的新值，只替换规则所属分区快照中的对应位置
+     * 暂停发布期间只记录有未发布修改的分区，恢复时每个分区发布一次
+     *
+     * @param rule 值发生变化的规则
+     */
+    protected synchronized void publish(@NotNull RGRule<?> rule) {
+        RGRulePartition partition = this.partitions.get(rule.namespace());
+        if (partition == null) return;
+        if (this.publishSuspended > 0) {
+            this.publishPending.add(partition);
+            return;
+        }
+        partition.publish(rule);
+    }
+
+    /**
+     * 暂停发布快照，必须与 {@link #resumePublish()} 成对调用
+     */
+    protected synchronized void suspendPublish() {
+        this.publishSuspended++;
+    }
+
+    /**
+     * 恢复发布快照，暂停期间有修改的分区各发布一次
+     */
+    protected synchronized void resumePublish() {
+        if (--this.publishSuspended > 0) return;
+        for (RGRulePartition partition : this.publishPending) partition.publishAll();
+        this.publishPending.clear();
+    }
+
+    /**
+     * 从配置文件中读取规则的序列化值，不会修改规则的当前值
+     * 管理器自身命名空间的配置文件中可能保存着分区之前其他命名空间的规则，这些规则会被归入所属的命名空间
+     *
+     * @param partition 配置文件所属的分区
+     * @param config    配置文件内容
+     * @return 返回规则及其序列化值的映射表
+     */
+    protected @NotNull Map<RGRule<?>, String> readRules(@NotNull RGRulePartition partition, @NotNull JsonObject config) {
+        Map<RGRule<?>, String> result = new HashMap<>();
+        boolean legacy = partition.getNamespace().equals(this.managerNamespace);
         // 遍历配置文件中的每个规则
         for (Map.Entry<String, JsonElement> entry : config.entrySet()) {
-            RGRule<?> rule = this.rules.get(entry.getKey());
+            RGRule<?> rule = partition.getRule(entry.getKey());
+            if (rule == null && legacy) rule = this.findLegacyRule(entry.getKey());
             if (rule == null) {
                 RollingGate.LOGGER.warn("{}({}) not exist.", entry.getKey(), entry.getValue());
                 continue;
             }
-            // 设置规则的字段值
-            rule.setFieldValue(entry.getValue());
-            result.put(rule, rule.getValue());
+            JsonElement value = entry.getValue();
+            if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+                result.put(rule, value.getAsString());
+            } else result.put(rule, value.toString());
         }
         return result;
     }
 
     /**
-     * 序列化配置映射表
+     * 在其他命名空间中查找规则，只有唯一匹配时才返回
      *
-     * @param configs 配置映射表
-     * @return 返回序列化后的配置映射表
+     * @param serialize 规则的序列化名称
+     * @return 规则，如果不存在或存在多个同名规则则返回null
      */
-    protected @NotNull Map<String, Object> getSerializedConfig(@NotNull Map<RGRule<?>, Object> configs) {
-        Map<String, Object> result = new HashMap<>();
-        // 遍历配置映射表，序列化每个规则
-        for (Map.Entry<RGRule<?>, Object> entry : configs.entrySet()) {
-            RGRule<?> key = entry.getKey();
-            result.put(key.serialize(), entry.getValue());
+    private RGRule<?> findLegacyRule(@NotNull String serialize) {
+        RGRule<?> found = null;
+        for (RGRulePartition partition : this.partitions.values()) {
+            RGRule<?> rule = partition.getRule(serialize);
+            if (rule == null) continue;
+            if (found != null) return null;
+            found = rule;
+        }
+        return found;
+    }
+
+    /**
+     * 将从各个配置文件读取的规则按所属命名空间分组
+     * 规则所属命名空间的配置文件优先于管理器命名空间中遗留的配置
+     *
+     * @param read 按配置文件所属命名空间索引的读取结果
+     * @return 按规则所属命名空间索引的读取结果
+     */
+    protected static @NotNull Map<String, Map<RGRule<?>, String>> groupByNamespace(@NotNull Map<String, Map<RGRule<?>, String>> read) {
+        Map<String, Map<RGRule<?>, String>> result = new HashMap<>();
+        for (String namespace : read.keySet()) result.put(namespace, new HashMap<>());
+        for (Map.Entry<String, Map<RGRule<?>, String>> file : read.entrySet()) {
+            for (Map.Entry<RGRule<?>, String> entry : file.getValue().entrySet()) {
+                RGRule<?> rule = entry.getKey();
+                Map<RGRule<?>, String> target = result.computeIfAbsent(rule.namespace(), k -> new HashMap<>());
+                if (rule.namespace().equals(file.getKey())) {
+                    target.put(rule, entry.getValue());
+                } else {
+                    target.putIfAbsent(rule, entry.getValue());
+                }
+            }
         }
         return result;
     }
 
+    /**
+     * 将规则设置为目标值，只有值发生变化的规则才会经过验证并触发变更事件
+     *
+     * @param target 规则及其目标序列化值的映射表
+     * @return 返回值发生变化的规则集合
+     */
+    protected @NotNull Set<RGRule<?>> applyChanged(@NotNull Map<RGRule<?>, String> target) {
+        Set<RGRule<?>> changed = new HashSet<>();
+        // 所有规则设置完成后只发布一次快照
+        this.suspendPublish();
+        try {
+            for (Map.Entry<RGRule<?>, String> entry : target.entrySet()) {
+                RGRule<?> rule = entry.getKey();
+                Object value;
+                try {
+                    value = rule.codec().decode(entry.getValue());
+                } catch (RuntimeException e) {
+                    // 无法解码的值交由setFieldValue报告错误
+                    value = null;
+                }
+                if (value != null && value.equals(rule.getValue())) continue;
+                rule.setFieldValue(entry.getValue());
+                changed.add(rule);
+            }
+        } finally {
+            this.resumePublish();
+        }
+        return changed;
+    }
+
+    /**
+     * 使用读取到的序列化值替换分区的全局配置映射表
+     *
+     * @param partition 规则分区
+     * @param global    规则及其序列化值的映射表
+     */
+    protected void setGlobalConfig(@NotNull RGRulePartition partition, @NotNull Map<RGRule<?>, String> global) {
+        RGRuleStore config = partition.getGlobalConfig();
+        config.clear();
+        for (Map.Entry<RGRule<?>, String> entry : global.entrySet()) {
+            config.put(entry.getKey(), entry.getKey().codec().decode(entry.getValue()));
+        }
+    }
+
+    /**
+     * 依次读取指定命名空间的全局配置文件，不会修改规则的当前值
+     *
+     * @param namespaces 需要读取的命名空间
+     * @return 按规则所属命名空间分组的读取结果
+     */
+    protected @NotNull Map<String, Map<RGRule<?>, String>> readGlobalConfigs(@NotNull Collection<String> namespaces) {
+        return RGRuleManager.groupByNamespace(this.readGlobalFiles(namespaces));
+    }
+
+    /**
+     * 依次读取指定命名空间的全局配置文件，按配置文件所属的命名空间索引，不会修改规则的当前值
+     * 配置文件很小，并行读取的调度开销超过读取本身，还会占用其他模组也在使用的公共线程池
+     * 无法读取或解析的配置文件所属的命名空间不会出现在结果中
+     *
+     * @param namespaces 需要读取的命名空间
+     * @return 按配置文件所属命名空间索引的读取结果
+     */
+    protected @NotNull Map<String, Map<RGRule<?>, String>> readGlobalFiles(@NotNull Collection<String> namespaces) {
+        RGRulePartition own = this.partitions.get(this.managerNamespace);
+        if (own != null && namespaces.contains(this.managerNamespace)) {
+            ConfigUtil.migrateLegacy(this.getLegacyGlobalConfigPath(), own.getGlobalConfigPath());
+        }
+        Map<String, Map<RGRule<?>, String>> read = new HashMap<>();
+        for (String namespace : namespaces) {
+            RGRulePartition partition = this.partitions.get(namespace);
+            if (partition == null) continue;
+            Map<RGRule<?>, String> rules = this.readConfigFile(partition, partition.getGlobalConfigPath());
+            if (rules != null) read.put(namespace, rules);
+        }
+        return read;
+    }
+
+    /**
+     * 读取分区的一个配置文件，文件无法读取或解析时记录错误并返回null，调用者应跳过该分区
+     *
+     * @param partition 配置文件所属的分区
+     * @param path      配置文件路径
+     * @return 返回规则及其序列化值的映射表，失败时返回null
+     */
+    protected Map<RGRule<?>, String> readConfigFile(@NotNull RGRulePartition partition, @NotNull Path path) {
+        try {
+            return this.readRules(partition, ConfigUtil.getOrCreateContent(path));
+        } catch (JsonParseException | RGRuleException e) {
+            RollingGate.LOGGER.error("Failed to read rule config {} of {}, skipped.", path, partition.getNamespace(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 序列化配置映射表
+     * 配置项在调用线程中按序列化名称排序复制，返回的写入器以流的方式输出JSON，可以在其他线程中调用
+     *
+     * @param configs 配置映射表
+     * @return 返回输出序列化配置的写入器
+     */
+    protected @NotNull ConfigUtil.ContentWriter getSerializedConfig(@NotNull RGRuleStore configs) {
+        return this.getSerializedConfig(configs, false);
+    }
+
+    /**
+     * 序列化配置映射表
+     * 配置项在调用线程中按序列化名称排序复制，返回的写入器以流的方式输出，可以在其他线程中调用
+     *
+     * @param configs 配置映射表
+     * @param binary  是否输出紧凑的二进制格式，否则输出JSON
+     * @return 返回输出序列化配置的写入器
+     */
+    protected @NotNull ConfigUtil.ContentWriter getSerializedConfig(@NotNull RGRuleStore configs, boolean binary) {
+        List<Map.Entry<String, Object>> entries = new ArrayList<>(configs.size());
+        // 遍历配置，序列化每个规则
+        configs.forEach((rule, value) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(rule.serialize(), value)));
+        // 按键排序，使输出稳定便于比较差异
+        entries.sort(Map.Entry.comparingByKey());
+        if (binary) return stream -> RGBinaryConfig.write(stream, entries);
+        return stream -> {
+            JsonWriter json = GSON.newJsonWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            json.beginObject();
+            for (Map.Entry<String, Object> entry : entries) {
+                json.name(entry.getKey());
+                Object value = entry.getValue();
+                if (value == null) {
+                    json.nullValue();
+                } else {
+                    GSON.toJson(value, value.getClass(), json);
+                }
+            }
+            json.endObject();
+            json.flush();
+        };
+    }
+
     /**
      * 重新初始化全局配置
+     * 只有值与当前值不同的规则会被重新设置
      */
     public void reInit() {
-        this.globalConfig.clear();
-        // 从配置文件中重新加载并设置规则
-        this.globalConfig.putAll(this.setSaveRules(ConfigUtil.getOrCreateContent(globalConfigPath)));
+        this.reload();
+    }
+
+    /**
+     * 重新加载全局配置，与 {@link #reInit()} 相同，但返回值发生变化的规则
+     *
+     * @return 返回值发生变化的规则集合
+     */
+    public @NotNull Set<RGRule<?>> reload() {
+        // 先写入尚未落盘的配置，避免重新加载时读到旧内容
+        ConfigWriter.flush();
+        // 先读取所有命名空间的配置文件，再设置规则
+        Map<String, Map<RGRule<?>, String>> globals = this.readGlobalConfigs(this.partitions.keySet());
+        Set<RGRule<?>> changed = new HashSet<>();
+        for (Map.Entry<String, Map<RGRule<?>, String>> entry : globals.entrySet()) {
+            RGRulePartition partition = this.partitions.get(entry.getKey());
+            if (partition == null) continue;
+            changed.addAll(this.applyChanged(entry.getValue()));
+            this.setGlobalConfig(partition, entry.getValue());
+        }
+        return changed;
     }
 
     /**
@@ -119,11 +479,41 @@ public class RGRuleManager {
      * @param rule 要添加的规则
      */
     public void addRule(@NotNull RGRule<?> rule) {
-        this.rules.put(rule.serialize(), rule);
+        this.getPartition(rule.namespace()).register(rule);
+        // 规则值生效后发布新的快照
+        rule.listeners().setCommitted(() -> this.publish(rule));
+        this.publish(rule);
         // 添加规则的类别到类别列表
         this.categories.addAll(Arrays.asList(rule.categories()));
     }
 
+    /**
+     * 将另一个管理器中的规则合并到此管理器
+     * 同一命名空间中已经存在的同名规则保持不变，冲突的规则会被记录并跳过
+     *
+     * @param other 包含待合并规则的管理器
+     * @return 返回成功合并的规则数量
+     */
+    public int merge(@NotNull RGRuleManager other) {
+        int count = 0;
+        this.suspendPublish();
+        try {
+            for (RGRule<?> rule : other.getRules()) {
+                RGRulePartition partition = this.partitions.get(rule.namespace());
+                RGRule<?> existing = partition == null ? null : partition.getRule(rule.serialize());
+                if (existing != null) {
+                    RollingGate.LOGGER.error("Rule {}:{} from {} conflicts with {}, skipped.", rule.namespace(), rule.serialize(), rule.field(), existing.field());
+                    continue;
+                }
+                this.addRule(rule);
+                count++;
+            }
+        } finally {
+            this.resumePublish();
+        }
+        return count;
+    }
+
     /**
      * 根据命名空间和规则类创建规则列表
      *
@@ -132,23 +522,90 @@ public class RGRuleManager {
      * @return 返回创建的规则列表
      */
     private static @NotNull List<RGRule<?>> of(String namespace, @NotNull Class<?> rules) {
+        RGRuleRegistry registry = RGRuleManager.findRegistry(rules);
+        // 优先使用编译期生成的注册表
+        if (registry != null) return registry.create(namespace);
         List<RGRule<?>> ruleList = new ArrayList<>();
         // 遍历规则类的每个字段
         for (Field field : rules.getDeclaredFields()) {
-            RGRule.checkType(field);
             ruleList.add(RGRule.of(namespace, field));
         }
         return ruleList;
     }
 
+    /**
+     * 查找规则类在编译期生成的注册表
+     * 每个类加载器只通过 {@link ServiceLoader} 扫描一次，之后按规则类直接查找
+     *
+     * @param rules 规则类
+     * @return 生成的注册表，如果不存在则返回null
+     */
+    private static RGRuleRegistry findRegistry(@NotNull Class<?> rules) {
+        ClassLoader loader = rules.getClassLoader();
+        if (loader == null) return null;
+        return RGRuleManager.REGISTRIES.computeIfAbsent(loader, RGRuleManager::loadRegistries).get(rules);
+    }
+
+    /**
+     * 加载类加载器中所有通过 {@code META-INF/services} 声明的规则注册表
+     *
+     * @param loader 类加载器
+     * @return 按规则类索引的注册表
+     */
+    private static @NotNull Map<Class<?>, RGRuleRegistry> loadRegistries(@NotNull ClassLoader loader) {
+        Map<Class<?>, RGRuleRegistry> result = new HashMap<>();
+        try {
+            for (ServiceLoader.Provider<RGRuleRegistry> provider : ServiceLoader.load(RGRuleRegistry.class, loader).stream().toList()) {
+                try {
+                    RGRuleRegistry registry = provider.get();
+                    Class<?> holder = registry.holder();
+                    if (holder != null) result.put(holder, registry);
+                } catch (ServiceConfigurationError e) {
+                    RollingGate.LOGGER.warn("Failed to load a rule registry, fallback to reflection.", e);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            RollingGate.LOGGER.warn("Failed to load rule registries, fallback to reflection.", e);
+        }
+        return result;
+    }
+
     /**
      * 注册规则类
      *
      * @param rules 规则类
      */
     public void register(Class<?> rules) {
+        this.register(this.namespace, rules);
+    }
+
+    /**
+     * 将规则类注册到指定的命名空间
+     *
+     * @param namespace 命名空间
+     * @param rules     规则类
+     */
+    public void register(String namespace, Class<?> rules) {
         // 创建并添加规则到管理器
-        RGRuleManager.of(this.namespace, rules).forEach(this::addRule);
+        this.addRules(RGRuleManager.of(namespace, rules));
+    }
+
+    /**
+     * 通过编译期生成的注册表注册规则
+     *
+     * @param registry 规则注册表
+     */
+    public void register(@NotNull RGRuleRegistry registry) {
+        this.addRules(registry.create(this.namespace));
+    }
+
+    private void addRules(@NotNull List<RGRule<?>> rules) {
+        this.suspendPublish();
+        try {
+            rules.forEach(this::addRule);
+        } finally {
+            this.resumePublish();
+        }
     }
 
     /**
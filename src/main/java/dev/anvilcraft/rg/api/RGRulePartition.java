@@ -0,0 +1,97 @@
+package dev.anvilcraft.rg.api;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RGRulePartition类保存单个命名空间的规则与全局配置
+ * <p>
+ * 每个命名空间拥有独立的规则表、配置文件与规则快照，一个命名空间的修改与重新加载不会涉及其他命名空间
+ */
+@Getter
+public class RGRulePartition {
+    // 分区的命名空间
+    private final String namespace;
+    // 全局配置文件路径
+    private final Path globalConfigPath;
+    // 该命名空间中的规则，按序列化名称索引
+    private final Map<String, RGRule<?>> rules = new LinkedHashMap<>();
+    // 规则的序号，规则对象本身不保存序号，同一个规则在临时管理器与正式管理器中的序号互不影响
+    @Getter(AccessLevel.NONE)
+    private final Map<RGRule<?>, Integer> ordinals = new ConcurrentHashMap<>();
+    // 该命名空间的全局配置，按序号索引
+    private final RGRuleStore globalConfig = new RGRuleStore(this);
+    // 当前发布的规则值快照，任何线程都可以读取
+    private volatile RGRuleSnapshot snapshot = new RGRuleSnapshot(this, 0, new Object[0]);
+
+    /**
+     * 构造函数
+     *
+     * @param namespace        命名空间
+     * @param globalConfigPath 全局配置文件路径
+     */
+    public RGRulePartition(String namespace, Path globalConfigPath) {
+        this.namespace = namespace;
+        this.globalConfigPath = globalConfigPath;
+    }
+
+    /**
+     * 注册规则并为其分配序号，序号按注册顺序从0开始连续分配
+     *
+     * @param rule 要注册的规则
+     */
+    public void register(@NotNull RGRule<?> rule) {
+        // 替换同名规则时沿用原有的序号，保持序号连续
+        RGRule<?> existing = this.rules.get(rule.serialize());
+        Integer ordinal = existing == null ? null : this.ordinals.remove(existing);
+        this.rules.put(rule.serialize(), rule);
+        this.ordinals.put(rule, ordinal == null ? this.ordinals.size() : ordinal);
+    }
+
+    /**
+     * 获取规则在分区中的序号
+     *
+     * @param rule 规则
+     * @return 规则的序号，如果规则未注册到该分区则返回-1
+     */
+    public int getOrdinal(@NotNull RGRule<?> rule) {
+        Integer ordinal = this.ordinals.get(rule);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * 根据序列化名称获取规则
+     *
+     * @param serialize 规则的序列化名称
+     * @return 规则，如果不存在则返回null
+     */
+    public RGRule<?> getRule(@NotNull String serialize) {
+        return this.rules.get(serialize);
+    }
+
+    /**
+     * 发布规则的当前值，只复制该分区的快照数组并替换规则对应的位置
+     *
+     * @param rule 值发生变化的规则
+     */
+    synchronized void publish(@NotNull RGRule<?> rule) {
+        int ordinal = this.getOrdinal(rule);
+        if (ordinal < 0) return;
+        this.snapshot = this.snapshot.with(ordinal, rule.handle().getVolatile(), this.ordinals.size());
+    }
+
+    /**
+     * 使用所有规则的当前值发布新的快照，批量修改结束时调用
+     */
+    synchronized void publishAll() {
+        Object[] values = new Object[this.ordinals.size()];
+        this.ordinals.forEach((rule, ordinal) -> values[ordinal] = rule.handle().getVolatile());
+        this.snapshot = this.snapshot.with(values);
+    }
+}
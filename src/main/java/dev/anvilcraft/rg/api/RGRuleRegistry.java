@@ -0,0 +1,80 @@
+package dev.anvilcraft.rg.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RGRuleRegistry 接口表示一个规则类的规则注册表
+ * <p>
+ * 规则处理器会在编译期为每个带有 {@link Rule} 字段的类生成一个名为 {@code <类名>_RGRegistry} 的实现，
+ * 内部类的类名中的 {@code $} 会被替换为 {@code _}。生成的注册表同时写入
+ * {@code META-INF/services/dev.anvilcraft.rg.api.RGRuleRegistry}，注册规则类时通过 {@link java.util.ServiceLoader}
+ * 按 {@link #holder()} 查找，找到时跳过运行时对字段的遍历、检查和验证器的反射创建
+ */
+public interface RGRuleRegistry {
+    /**
+     * 生成的注册表类名后缀
+     */
+    String SUFFIX = "_RGRegistry";
+
+    /**
+     * 创建规则类中的所有规则
+     *
+     * @param namespace 命名空间
+     * @return 规则列表
+     */
+    @NotNull List<RGRule<?>> create(String namespace);
+
+    /**
+     * 获取注册表对应的规则类
+     *
+     * @return 规则类，返回null的注册表只能通过 {@link RGRuleManager#register(RGRuleRegistry)} 注册
+     */
+    default Class<?> holder() {
+        return null;
+    }
+
+    /**
+     * 获取规则类中声明的所有字段，生成的注册表每个规则类只调用一次
+     *
+     * @param holder 规则类
+     * @return 按字段名索引的字段
+     */
+    static @NotNull Map<String, Field> fields(@NotNull Class<?> holder) {
+        Map<String, Field> result = new HashMap<>();
+        for (Field field : holder.getDeclaredFields()) result.put(field.getName(), field);
+        return result;
+    }
+
+    /**
+     * 从规则类的字段中获取指定名称的字段
+     *
+     * @param fields 由 {@link #fields(Class)} 获取的字段
+     * @param name   字段名
+     * @return 字段对象
+     * @throws RGRuleException 如果字段不存在，则抛出此异常
+     */
+    static @NotNull Field field(@NotNull Map<String, Field> fields, @NotNull String name) {
+        Field field = fields.get(name);
+        if (field == null) throw RGRuleException.createRuleFailed(name);
+        return field;
+    }
+
+    /**
+     * 获取规则类中指定名称的字段
+     *
+     * @param holder 规则类
+     * @param name   字段名
+     * @return 字段对象
+     * @throws RGRuleException 如果字段不存在，则抛出此异常
+     * @deprecated 供旧版本处理器生成的注册表使用，新生成的注册表使用 {@link #field(Map, String)}
+     */
+    @Deprecated
+    static @NotNull Field field(@NotNull Class<?> holder, @NotNull String name) {
+        return RGRuleRegistry.field(RGRuleRegistry.fields(holder), name);
+    }
+}
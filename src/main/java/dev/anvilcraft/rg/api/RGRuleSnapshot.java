@@ -0,0 +1,95 @@
+package dev.anvilcraft.rg.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * RGRuleSnapshot记录某一时刻一个命名空间中所有规则的值
+ * <p>
+ * 快照不可变，值按规则在分区中的序号保存在数组中。规则生效后分区只复制自己的数组并替换变化的位置，
+ * 再通过volatile引用发布新的快照，因此任何线程读取到的快照都是一致的，其他命名空间的快照不受影响。
+ * 版本号在每次发布时递增，可以用来廉价地判断根据规则计算出的缓存是否需要更新
+ */
+public final class RGRuleSnapshot {
+    // 快照所属的分区，用于查找规则的序号
+    private final RGRulePartition partition;
+    // 快照版本号
+    private final long version;
+    // 按序号索引的规则值
+    private final Object[] values;
+
+    RGRuleSnapshot(@NotNull RGRulePartition partition, long version, Object @NotNull [] values) {
+        this.partition = partition;
+        this.version = version;
+        this.values = values;
+    }
+
+    /**
+     * 获取快照版本号
+     *
+     * @return 快照版本号
+     */
+    public long version() {
+        return this.version;
+    }
+
+    /**
+     * 获取规则在快照中的值
+     *
+     * @param rule 规则
+     * @param <T>  规则值的类型
+     * @return 规则的值，如果快照中不包含该规则则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull RGRule<T> rule) {
+        int ordinal = this.partition.getOrdinal(rule);
+        return ordinal >= 0 && ordinal < this.values.length ? (T) this.values[ordinal] : null;
+    }
+
+    /**
+     * 获取规则在快照中的值，如果快照中不包含该规则则返回默认值
+     *
+     * @param rule 规则
+     * @param <T>  规则值的类型
+     * @return 规则的值
+     */
+    public <T> T getOrDefault(@NotNull RGRule<T> rule) {
+        T value = this.get(rule);
+        return value == null ? rule.defaultValue() : value;
+    }
+
+    /**
+     * 检查快照中是否包含规则
+     *
+     * @param rule 规则
+     * @return 如果包含则返回true
+     */
+    public boolean contains(@NotNull RGRule<?> rule) {
+        return this.get(rule) != null;
+    }
+
+    /**
+     * 复制快照并替换一个规则的值，生成下一个版本
+     *
+     * @param ordinal 规则的序号
+     * @param value   规则的新值
+     * @param size    分区中规则的数量
+     * @return 新的快照
+     */
+    @NotNull RGRuleSnapshot with(int ordinal, Object value, int size) {
+        Object[] values = Arrays.copyOf(this.values, Math.max(size, this.values.length));
+        values[ordinal] = value;
+        return new RGRuleSnapshot(this.partition, this.version + 1, values);
+    }
+
+    /**
+     * 使用全部规则的值生成下一个版本
+     *
+     * @param values 按序号索引的规则值
+     * @return 新的快照
+     */
+    @NotNull RGRuleSnapshot with(Object @NotNull [] values) {
+        return new RGRuleSnapshot(this.partition, this.version + 1, values);
+    }
+}
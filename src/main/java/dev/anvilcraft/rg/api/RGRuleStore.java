@@ -0,0 +1,203 @@
+package dev.anvilcraft.rg.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * RGRuleStore类按规则序号保存一层规则值
+ * <p>
+ * 基本类型的值按位保存在long数组中而不是装箱保存，字符串保存在引用数组中，查找只需按序号读取数组。
+ * 读取时基本类型的值会被装箱，配置层只在加载、保存与命令中读取，不在热点路径上。序号由 {@link RGRulePartition} 在注册规则时分配
+ */
+public class RGRuleStore {
+    private static final byte ABSENT = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte REFERENCE = 8;
+    // 分配序号的分区
+    private final RGRulePartition partition;
+    // 每个序号对应的规则，用于遍历
+    private RGRule<?>[] rules = new RGRule<?>[0];
+    // 每个序号对应值的类型，ABSENT表示没有值
+    private byte[] kinds = new byte[0];
+    // 基本类型的值
+    private long[] primitives = new long[0];
+    // 引用类型的值
+    private Object[] references = new Object[0];
+    // 每个序号对应值的版本，值被设置或移除时递增
+    private long[] versions = new long[0];
+    // 已保存的值的数量
+    private int size = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param partition 为规则分配序号的分区
+     */
+    public RGRuleStore(@NotNull RGRulePartition partition) {
+        this.partition = partition;
+    }
+
+    /**
+     * 检查规则是否有值
+     *
+     * @param rule 规则
+     * @return 如果规则有值则返回true
+     */
+    public boolean contains(@NotNull RGRule<?> rule) {
+        int ordinal = this.partition.getOrdinal(rule);
+        return ordinal >= 0 && ordinal < this.kinds.length && this.kinds[ordinal] != ABSENT;
+    }
+
+    /**
+     * 获取规则的值，基本类型的值会被装箱
+     *
+     * @param rule 规则
+     * @return 规则的值，如果没有值则返回null
+     */
+    public Object get(@NotNull RGRule<?> rule) {
+        int ordinal = this.partition.getOrdinal(rule);
+        if (ordinal < 0 || ordinal >= this.kinds.length || this.kinds[ordinal] == ABSENT) return null;
+        long bits = this.primitives[ordinal];
+        return switch (this.kinds[ordinal]) {
+            case BOOLEAN -> bits != 0;
+            case BYTE -> (byte) bits;
+            case SHORT -> (short) bits;
+            case INT -> (int) bits;
+            case LONG -> bits;
+            case FLOAT -> Float.intBitsToFloat((int) bits);
+            case DOUBLE -> Double.longBitsToDouble(bits);
+            default -> this.references[ordinal];
+        };
+    }
+
+    /**
+     * 设置规则的值
+     *
+     * @param rule  规则
+     * @param value 规则的值，为null时移除该值
+     * @throws IllegalArgumentException 如果规则未注册到分区
+     */
+    public void put(@NotNull RGRule<?> rule, Object value) {
+        int ordinal = this.partition.getOrdinal(rule);
+        if (ordinal < 0) throw new IllegalArgumentException("Rule %s is not registered in %s".formatted(rule.name(), this.partition.getNamespace()));
+        if (value == null) {
+            this.remove(rule);
+            return;
+        }
+        this.ensureCapacity(ordinal + 1);
+        byte kind = RGRuleStore.kind(rule);
+        long bits = 0;
+        Object reference = null;
+        switch (kind) {
+            case BOOLEAN -> bits = (Boolean) value ? 1 : 0;
+            case BYTE, SHORT, INT, LONG -> bits = ((Number) value).longValue();
+            case FLOAT -> bits = Float.floatToRawIntBits((Float) value);
+            case DOUBLE -> bits = Double.doubleToRawLongBits((Double) value);
+            default -> reference = value;
+        }
+        if (this.kinds[ordinal] == ABSENT) this.size++;
+        this.rules[ordinal] = rule;
+        this.kinds[ordinal] = kind;
+        this.primitives[ordinal] = bits;
+        this.references[ordinal] = reference;
+        this.versions[ordinal]++;
+    }
+
+    /**
+     * 移除规则的值
+     *
+     * @param rule 规则
+     */
+    public void remove(@NotNull RGRule<?> rule) {
+        if (!this.contains(rule)) return;
+        int ordinal = this.partition.getOrdinal(rule);
+        this.kinds[ordinal] = ABSENT;
+        this.references[ordinal] = null;
+        this.versions[ordinal]++;
+        this.size--;
+    }
+
+    /**
+     * 移除所有值
+     */
+    public void clear() {
+        for (int ordinal = 0; ordinal < this.kinds.length; ordinal++) {
+            if (this.kinds[ordinal] != ABSENT) this.versions[ordinal]++;
+        }
+        Arrays.fill(this.kinds, ABSENT);
+        Arrays.fill(this.references, null);
+        this.size = 0;
+    }
+
+    /**
+     * 获取规则的值的版本，值被设置或移除时递增，可以用于判断依赖该值的缓存是否过期
+     *
+     * @param rule 规则
+     * @return 值的版本，从未设置过值时为0
+     */
+    public long version(@NotNull RGRule<?> rule) {
+        int ordinal = this.partition.getOrdinal(rule);
+        return ordinal >= 0 && ordinal < this.versions.length ? this.versions[ordinal] : 0;
+    }
+
+    /**
+     * 获取已保存的值的数量
+     *
+     * @return 值的数量
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * 检查是否没有任何值
+     *
+     * @return 如果没有任何值则返回true
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * 按序号顺序遍历所有值，基本类型的值会被装箱
+     *
+     * @param action 对每个规则及其值执行的操作
+     */
+    public void forEach(@NotNull BiConsumer<RGRule<?>, Object> action) {
+        for (int ordinal = 0; ordinal < this.kinds.length; ordinal++) {
+            if (this.kinds[ordinal] == ABSENT) continue;
+            RGRule<?> rule = this.rules[ordinal];
+            action.accept(rule, this.get(rule));
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.kinds.length) return;
+        int length = Math.max(capacity, this.kinds.length * 2);
+        this.rules = Arrays.copyOf(this.rules, length);
+        this.kinds = Arrays.copyOf(this.kinds, length);
+        this.primitives = Arrays.copyOf(this.primitives, length);
+        this.references = Arrays.copyOf(this.references, length);
+        this.versions = Arrays.copyOf(this.versions, length);
+    }
+
+    private static byte kind(@NotNull RGRule<?> rule) {
+        RGCodec<?> codec = rule.codec();
+        if (codec == RGCodec.BOOLEAN) return BOOLEAN;
+        if (codec == RGCodec.BYTE) return BYTE;
+        if (codec == RGCodec.SHORT) return SHORT;
+        if (codec == RGCodec.INTEGER) return INT;
+        if (codec == RGCodec.LONG) return LONG;
+        if (codec == RGCodec.FLOAT) return FLOAT;
+        if (codec == RGCodec.DOUBLE) return DOUBLE;
+        return REFERENCE;
+    }
+}
@@ -0,0 +1,141 @@
+package dev.anvilcraft.rg.api;
+
+import dev.anvilcraft.rg.api.event.RGRuleBatchChangeEvent;
+import dev.anvilcraft.rg.api.event.RGRuleChangeEvent;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.neoforge.common.NeoForge;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RGRuleTransaction类将多个规则的修改作为一个整体提交
+ * <p>
+ * 提交时先验证并解码所有值，任何一个值非法都不会修改任何规则；随后为每个规则发布可以取消的
+ * {@link RGRuleChangeEvent}，任何一个被取消都会放弃整个事务；最后只发布一次
+ * {@link RGRuleBatchChangeEvent}，事件未被取消时写入所有字段，写入失败则回滚已写入的规则。
+ * 所有规则写入完成后规则管理器只发布一次快照，随后才通知变更监听器；回滚的写入不会通知任何监听器
+ */
+public class RGRuleTransaction {
+    // 所属的规则管理器
+    private final RGRuleManager manager;
+    // 服务器实例，客户端事务中为null
+    private final MinecraftServer server;
+    // 待提交的规则及其序列化值，保持添加顺序
+    private final Map<RGRule<?>, String> values = new LinkedHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param manager 所属的规则管理器
+     * @param server  服务器实例，客户端事务中为null
+     */
+    public RGRuleTransaction(@NotNull RGRuleManager manager, MinecraftServer server) {
+        this.manager = manager;
+        this.server = server;
+    }
+
+    /**
+     * 添加一个规则修改，同一规则多次添加时以最后一次为准
+     *
+     * @param rule  规则
+     * @param value 新值的序列化字符串
+     * @return 当前事务
+     */
+    public @NotNull RGRuleTransaction set(@NotNull RGRule<?> rule, @NotNull String value) {
+        this.values.put(rule, value);
+        return this;
+    }
+
+    /**
+     * 检查事务中是否没有任何修改
+     *
+     * @return 如果没有任何修改则返回true
+     */
+    public boolean isEmpty() {
+        return this.values.isEmpty();
+    }
+
+    /**
+     * 提交事务
+     * 值与当前值相同的规则会被忽略
+     *
+     * @return 实际发生的变更，批量事件被取消时返回空列表
+     * @throws RGRuleException 如果任何值非法、任何规则的变更事件被取消或写入失败，则抛出此异常，此时所有规则保持原值
+     */
+    public @NotNull List<RGRuleBatchChangeEvent.Change<?>> commit() {
+        List<RGRuleBatchChangeEvent.Change<?>> prepared = new ArrayList<>();
+        // 先验证所有值，任何一个值非法都不修改规则
+        for (Map.Entry<RGRule<?>, String> entry : this.values.entrySet()) {
+            RGRuleBatchChangeEvent.Change<?> change = RGRuleTransaction.prepare(entry.getKey(), entry.getValue());
+            if (change != null) prepared.add(change);
+        }
+        // 每个规则仍然发布可以取消的变更事件，任何一个被取消都会放弃整个事务
+        List<RGRuleBatchChangeEvent.Change<?>> changes = new ArrayList<>(prepared.size());
+        for (RGRuleBatchChangeEvent.Change<?> change : prepared) {
+            RGRuleBatchChangeEvent.Change<?> posted = this.post(change);
+            if (posted != null) changes.add(posted);
+        }
+        if (changes.isEmpty()) return List.of();
+        RGRuleBatchChangeEvent event = new RGRuleBatchChangeEvent(Collections.unmodifiableList(changes), this.server);
+        NeoForge.EVENT_BUS.post(event);
+        if (event.isCanceled()) return List.of();
+        this.manager.suspendPublish();
+        try {
+            List<RGRuleBatchChangeEvent.Change<?>> committed = new ArrayList<>();
+            try {
+                for (RGRuleBatchChangeEvent.Change<?> change : changes) {
+                    change.rule().commitValue(change.newValue());
+                    committed.add(change);
+                }
+            } catch (RGRuleException e) {
+                // 按相反顺序恢复已写入的规则
+                for (int i = committed.size() - 1; i >= 0; i--) {
+                    RGRuleBatchChangeEvent.Change<?> change = committed.get(i);
+                    change.rule().commitValue(change.oldValue());
+                }
+                throw e;
+            }
+            for (RGRuleBatchChangeEvent.Change<?> change : changes) change.rule().notifyCommitted();
+        } finally {
+            this.manager.resumePublish();
+        }
+        // 所有规则写入成功并发布快照后才通知监听器，监听器看到的总是完整提交后的状态
+        for (RGRuleBatchChangeEvent.Change<?> change : changes) change.rule().notifyChanged(change.oldValue(), change.newValue());
+        return changes;
+    }
+
+    /**
+     * 发布单个规则的变更事件
+     *
+     * @return 监听者可能修改了新值的变更，新值与旧值相同时返回null
+     * @throws RGRuleException 如果事件被取消，则抛出此异常
+     */
+    private <T> RGRuleBatchChangeEvent.Change<T> post(@NotNull RGRuleBatchChangeEvent.Change<T> change) {
+        RGRule<T> rule = change.rule();
+        RGRuleChangeEvent<T> event = rule.postChangeEvent(change.oldValue(), change.newValue(), this.server);
+        if (event.isCanceled()) throw new RGRuleException("Change of rule %s was cancelled", rule.name());
+        T newValue = event.getNewValue();
+        if (newValue == null) throw new RGRuleException("Illegal value of rule %s: null", rule.name());
+        if (newValue.equals(change.oldValue())) return null;
+        return new RGRuleBatchChangeEvent.Change<>(rule, change.oldValue(), newValue);
+    }
+
+    private static <T> RGRuleBatchChangeEvent.Change<T> prepare(@NotNull RGRule<T> rule, @NotNull String value) {
+        rule.validate(value);
+        T newValue;
+        try {
+            newValue = rule.codec().decode(value);
+        } catch (RuntimeException e) {
+            throw new RGRuleException("Illegal value: %s", value);
+        }
+        if (newValue == null) throw new RGRuleException("Illegal value: %s", value);
+        T oldValue = rule.getValue();
+        if (newValue.equals(oldValue)) return null;
+        return new RGRuleBatchChangeEvent.Change<>(rule, oldValue, newValue);
+    }
+}
@@ -0,0 +1,72 @@
+package dev.anvilcraft.rg.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
+import java.lang.invoke.VarHandle;
+
+/**
+ * RGStableValue 为很少变化的规则提供可被 JIT 常量折叠的读取方式
+ * <p>
+ * 调用点的目标是一个绑定了当前值的常量句柄，并由 SwitchPoint 保护。
+ * 规则值变化时旧的 SwitchPoint 失效，依赖该常量的已编译代码会被去优化，
+ * 随后调用点重新绑定到新值
+ */
+public class RGStableValue {
+    // 读取字段的回退句柄，SwitchPoint 失效后使用
+    private final MethodHandle fallback;
+    // 对外暴露的调用点
+    private final MutableCallSite callSite;
+    // 当前保护常量的 SwitchPoint
+    private SwitchPoint switchPoint;
+
+    /**
+     * 构造一个 RGStableValue 实例并绑定字段的当前值
+     *
+     * @param handle 规则字段的句柄
+     */
+    RGStableValue(@NotNull VarHandle handle) {
+        this.fallback = handle.toMethodHandle(VarHandle.AccessMode.GET);
+        this.callSite = new MutableCallSite(this.fallback);
+        this.rebind();
+    }
+
+    /**
+     * 获取调用点的调用器，将其存入 static final 字段后调用可被常量折叠
+     *
+     * @return 无参数、返回规则字段类型的方法句柄
+     */
+    public @NotNull MethodHandle invoker() {
+        return this.callSite.dynamicInvoker();
+    }
+
+    /**
+     * 使当前常量失效，之后的读取会回退到直接读取字段
+     * 应在修改字段之前调用
+     */
+    synchronized void invalidate() {
+        if (this.switchPoint == null || this.switchPoint.hasBeenInvalidated()) return;
+        SwitchPoint.invalidateAll(new SwitchPoint[]{this.switchPoint});
+    }
+
+    /**
+     * 将调用点重新绑定到字段的当前值
+     * 应在修改字段之后调用
+     */
+    synchronized void rebind() {
+        Object value;
+        try {
+            value = this.fallback.invoke();
+        } catch (Throwable e) {
+            throw new RGRuleException("Failed to read stable rule value", e);
+        }
+        SwitchPoint next = new SwitchPoint();
+        MethodHandle constant = MethodHandles.constant(this.fallback.type().returnType(), value);
+        this.callSite.setTarget(next.guardWithTest(constant, this.fallback));
+        this.invalidate();
+        this.switchPoint = next;
+    }
+}
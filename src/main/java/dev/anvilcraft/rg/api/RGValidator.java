@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -223,16 +224,40 @@ public interface RGValidator<T> {
          * @return 如果供应商提供的命令规则满足权限级别，则返回true，否则返回false
          */
         public static boolean hasPermission(@NotNull Supplier<String> supplier, @NotNull CommandSourceStack stack) {
-            String s = supplier.get();
-            return switch (s) {
-                case "0" -> stack.hasPermission(Commands.LEVEL_ALL);
-                case "1" -> stack.hasPermission(Commands.LEVEL_MODERATORS);
-                case "ops", "2" -> stack.hasPermission(Commands.LEVEL_GAMEMASTERS);
-                case "3" -> stack.hasPermission(Commands.LEVEL_ADMINS);
-                case "4" -> stack.hasPermission(Commands.LEVEL_OWNERS);
-                case "true" -> true;
-                default -> false;
+            return CommandRuleValidator.compile(supplier.get()).test(stack);
+        }
+
+        /**
+         * 将命令规则的值编译为权限判断，相同权限级别的值返回同一个共享实例
+         * 命令的requires应优先使用 {@link RGCommandPermission#of(RGRule)}，规则变化时才重新编译
+         *
+         * @param value 命令规则的值
+         * @return 权限判断
+         */
+        public static @NotNull Predicate<CommandSourceStack> compile(String value) {
+            if (value == null) return CommandRuleValidator.DENY;
+            return switch (value) {
+                case "0" -> CommandRuleValidator.LEVELS[Commands.LEVEL_ALL];
+                case "1" -> CommandRuleValidator.LEVELS[Commands.LEVEL_MODERATORS];
+                case "ops", "2" -> CommandRuleValidator.LEVELS[Commands.LEVEL_GAMEMASTERS];
+                case "3" -> CommandRuleValidator.LEVELS[Commands.LEVEL_ADMINS];
+                case "4" -> CommandRuleValidator.LEVELS[Commands.LEVEL_OWNERS];
+                case "true" -> CommandRuleValidator.ALLOW;
+                default -> CommandRuleValidator.DENY;
             };
         }
+
+        private static final Predicate<CommandSourceStack> ALLOW = stack -> true;
+        private static final Predicate<CommandSourceStack> DENY = stack -> false;
+        // 每个权限级别对应的判断，按级别索引
+        @SuppressWarnings("unchecked")
+        private static final Predicate<CommandSourceStack>[] LEVELS = new Predicate[Commands.LEVEL_OWNERS + 1];
+
+        static {
+            for (int level = 0; level < CommandRuleValidator.LEVELS.length; level++) {
+                int required = level;
+                CommandRuleValidator.LEVELS[level] = stack -> stack.hasPermission(required);
+            }
+        }
     }
 }
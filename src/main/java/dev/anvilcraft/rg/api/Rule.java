@@ -51,4 +51,13 @@ public @interface Rule {
      * @return RGValidator的类数组，表示配置项使用的验证器
      */
     Class<? extends RGValidator>[] validator() default {};
+
+    /**
+     * 指定配置项是否为稳定规则，默认为false
+     * 稳定规则的值会被绑定为由SwitchPoint保护的常量，可被JIT折叠进已编译的代码，
+     * 适用于启动时设置后几乎不再变化的配置项，修改此类规则的代价较高
+     *
+     * @return 布尔值，表示配置项是否为稳定规则
+     */
+    boolean stable() default false;
 }
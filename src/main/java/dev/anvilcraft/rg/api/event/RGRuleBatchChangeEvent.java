@@ -0,0 +1,62 @@
+package dev.anvilcraft.rg.api.event;
+
+import dev.anvilcraft.rg.api.RGRule;
+import lombok.Getter;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.ICancellableEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * 在一个事务中同时修改多个规则时触发的事件。
+ * 事务中的每个规则会先各自触发可以取消的 {@link RGRuleChangeEvent}，任何一个被取消都会放弃整个事务，
+ * 所有规则的事件都未被取消后才触发此事件。取消此事件同样会放弃整个事务。
+ */
+@Getter
+public class RGRuleBatchChangeEvent extends Event implements ICancellableEvent {
+    /**
+     * 事务中发生变更的规则，按提交顺序排列。
+     */
+    private final List<Change<?>> changes;
+    /**
+     * 服务器实例，客户端事务中为null。
+     */
+    private final MinecraftServer server;
+
+    /**
+     * 构造一个新的批量规则更改事件。
+     *
+     * @param changes 发生变更的规则。
+     * @param server  服务器实例，客户端事务中为null。
+     */
+    public RGRuleBatchChangeEvent(List<Change<?>> changes, MinecraftServer server) {
+        this.changes = changes;
+        this.server = server;
+    }
+
+    /**
+     * 查找指定规则的变更。
+     *
+     * @param name 规则名称。
+     * @return 规则的变更，如果事务中不包含该规则则返回null。
+     */
+    public Change<?> find(@NotNull String name) {
+        for (Change<?> change : this.changes) {
+            if (change.rule().name().equals(name)) return change;
+        }
+        return null;
+    }
+
+    /**
+     * 单个规则的变更。
+     *
+     * @param rule     发生变更的规则。
+     * @param oldValue 规则的旧值。
+     * @param newValue 规则的新值。
+     * @param <T>      规则值的类型。
+     */
+    public record Change<T>(RGRule<T> rule, T oldValue, T newValue) {
+    }
+}
@@ -0,0 +1,179 @@
+package dev.anvilcraft.rg.api.server;
+
+import dev.anvilcraft.rg.RollingGate;
+import dev.anvilcraft.rg.api.ConfigWriter;
+import dev.anvilcraft.rg.api.RGRule;
+import dev.anvilcraft.rg.api.RGRuleException;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规则配置文件监视器
+ * <p>
+ * 使用 {@link WatchService} 监视全局配置与世界配置所在的目录。文件发生变化后等待一个防抖窗口，
+ * 在监视线程中只解析并验证发生变化的文件所属的命名空间，再交由服务器线程在下一刻只应用发生变化的规则。
+ * 任何一个文件非法时放弃整次重新加载；解析期间世界配置在游戏内被修改时重新解析。
+ * 由 {@link ConfigWriter} 写入的修改会被忽略
+ */
+public class RGConfigWatcher implements Runnable, AutoCloseable {
+    // 防抖窗口，单位为毫秒
+    public static final long DEBOUNCE_MILLIS = 500;
+    private final ServerRGRuleManager manager;
+    private final MinecraftServer server;
+    private final WatchService service;
+    // 监视的目录及其中关心的文件和文件所属的命名空间
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Map<Path, String> files;
+    private final Thread thread;
+    // 解析与重试在此执行器中依次进行，停止监视时一并取消
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RollingGate Config Reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 监视器是否已经停止，停止后不再应用任何重新加载
+    private volatile boolean closed = false;
+
+    private RGConfigWatcher(ServerRGRuleManager manager, MinecraftServer server, @NotNull Map<Path, String> files) throws IOException {
+        this.manager = manager;
+        this.server = server;
+        this.files = new HashMap<>();
+        this.service = FileSystems.getDefault().newWatchService();
+        Set<Path> registered = new HashSet<>();
+        for (Map.Entry<Path, String> file : files.entrySet()) {
+            Path absolute = file.getKey().toAbsolutePath().normalize();
+            this.files.put(absolute, file.getValue());
+            Path directory = absolute.getParent();
+            if (!registered.add(directory)) continue;
+            WatchKey key = directory.register(this.service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            this.directories.put(key, directory);
+        }
+        this.thread = new Thread(this, "RollingGate Config Watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 创建并启动配置文件监视器
+     *
+     * @param manager 规则管理器
+     * @param server  服务器实例
+     * @param files   需要监视的文件及其所属的命名空间
+     * @return 已启动的监视器
+     * @throws RGRuleException 如果无法监视文件所在的目录，则抛出此异常
+     */
+    public static @NotNull RGConfigWatcher start(ServerRGRuleManager manager, MinecraftServer server, @NotNull Map<Path, String> files) {
+        try {
+            RGConfigWatcher watcher = new RGConfigWatcher(manager, server, files);
+            watcher.thread.start();
+            return watcher;
+        } catch (IOException e) {
+            throw new RGRuleException("Failed to watch rolling gate config files", e);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new HashSet<>();
+                this.collect(this.service.take(), changed);
+                // 持续收集事件，直到防抖窗口内不再有新的事件
+                WatchKey key;
+                while ((key = this.service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    this.collect(key, changed);
+                }
+                if (changed.isEmpty()) continue;
+                // 等待尚未落盘的写入完成，再判断修改是否来自外部
+                ConfigWriter.flush();
+                Set<String> namespaces = new HashSet<>();
+                for (Path file : changed) {
+                    if (!ConfigWriter.isWrittenByUs(file)) namespaces.add(this.files.get(file));
+                }
+                if (namespaces.isEmpty()) continue;
+                this.submit(namespaces);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void collect(@NotNull WatchKey key, Set<Path> changed) {
+        Path directory = this.directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null || !(event.context() instanceof Path name)) continue;
+            Path file = directory.resolve(name);
+            if (this.files.containsKey(file)) changed.add(file);
+        }
+        key.reset();
+    }
+
+    private void submit(Set<String> namespaces) {
+        if (this.closed) return;
+        try {
+            this.executor.execute(() -> this.reload(namespaces));
+        } catch (RejectedExecutionException ignored) {
+            // 监视器已经停止
+        }
+    }
+
+    private void reload(Set<String> namespaces) {
+        if (this.closed) return;
+        // 重试时游戏内的修改可能尚未落盘，先等待写入完成
+        ConfigWriter.flush();
+        ServerRGRuleManager.LoadedConfig loaded;
+        try {
+            loaded = this.manager.load(this.server, namespaces);
+        } catch (RuntimeException e) {
+            RollingGate.LOGGER.error("Failed to parse rolling gate config files", e);
+            return;
+        }
+        // 任何一个文件无法读取或含有非法值时放弃本次重新加载，所有规则保持不变
+        if (!loaded.failed().isEmpty()) {
+            RollingGate.LOGGER.error("Rolling gate config files of {} are invalid, reload dropped", String.join(", ", loaded.failed().stream().sorted().toList()));
+            return;
+        }
+        this.server.execute(() -> {
+            if (this.closed) return;
+            // 读取期间世界配置在游戏内被修改时读取结果已经过时，在重新读取前等待游戏内的修改落盘
+            if (!this.manager.isCurrent(loaded)) {
+                this.submit(namespaces);
+                return;
+            }
+            try {
+                Set<RGRule<?>> changed = this.manager.apply(this.server, loaded);
+                if (changed.isEmpty()) return;
+                RollingGate.LOGGER.info("Reloaded {} changed rule(s) from config files: {}", changed.size(), String.join(", ", changed.stream().map(RGRule::name).sorted().toList()));
+            } catch (RGRuleException e) {
+                RollingGate.LOGGER.error("Failed to apply rolling gate config files", e);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.thread.interrupt();
+        this.executor.shutdownNow();
+        try {
+            this.service.close();
+        } catch (IOException e) {
+            RollingGate.LOGGER.error("Failed to stop rolling gate config watcher", e);
+        }
+    }
+}
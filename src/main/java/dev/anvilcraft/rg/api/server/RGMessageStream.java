@@ -0,0 +1,83 @@
+package dev.anvilcraft.rg.api.server;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * RGMessageStream类把大量的命令输出分摊到多个刻中发送
+ * <p>
+ * 所有输出共享每刻 {@link #PACKETS_PER_TICK} 条消息的额度，多个输出之间轮流发送，
+ * 避免一次性向客户端发送大量聊天数据包。接收者离线后剩余的消息会被丢弃
+ */
+public class RGMessageStream {
+    // 每刻最多发送的消息数
+    public static final int PACKETS_PER_TICK = 20;
+    // 进行中的输出
+    private static final Deque<Pending> STREAMS = new ArrayDeque<>();
+
+    /**
+     * 排队发送一组消息，消息从本刻结束时开始按额度发送
+     *
+     * @param source   命令源
+     * @param messages 要发送的消息
+     */
+    public static synchronized void send(@NotNull CommandSourceStack source, @NotNull List<Component> messages) {
+        if (messages.isEmpty()) return;
+        RGMessageStream.STREAMS.addLast(new Pending(source, messages.iterator()));
+    }
+
+    /**
+     * 获取进行中的输出数量
+     *
+     * @return 输出数量
+     */
+    public static synchronized int size() {
+        return RGMessageStream.STREAMS.size();
+    }
+
+    /**
+     * 丢弃所有进行中的输出，服务器停止时调用，避免继续持有已经失效的命令源
+     */
+    public static synchronized void clear() {
+        RGMessageStream.STREAMS.clear();
+    }
+
+    /**
+     * 在每刻结束时按额度发送排队的消息
+     *
+     * @param event 服务器刻事件
+     */
+    public static synchronized void onServerTick(@NotNull ServerTickEvent.Post event) {
+        int budget = PACKETS_PER_TICK;
+        while (budget > 0 && !RGMessageStream.STREAMS.isEmpty()) {
+            Pending pending = RGMessageStream.STREAMS.pollFirst();
+            if (pending.isDisconnected()) continue;
+            Component message = pending.messages().next();
+            pending.source().sendSuccess(() -> message, false);
+            budget--;
+            // 轮流发送，每个输出每次只发送一条
+            if (pending.messages().hasNext()) RGMessageStream.STREAMS.addLast(pending);
+        }
+    }
+
+    /**
+     * 排队中的输出
+     *
+     * @param source   命令源
+     * @param messages 剩余的消息
+     */
+    private record Pending(CommandSourceStack source, Iterator<Component> messages) {
+        private boolean isDisconnected() {
+            ServerPlayer player = this.source.getPlayer();
+            return player != null && player.hasDisconnected();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package dev.anvilcraft.rg.api.server;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import dev.anvilcraft.rg.RollingGate;
+import dev.anvilcraft.rg.api.ConfigUtil;
+import dev.anvilcraft.rg.api.ConfigWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * 规则配置的追加日志
+ * <p>
+ * 每次修改只向日志文件追加一行记录，加载时在最近一次压缩的快照之上按顺序重放日志。
+ * 日志记录过多时将当前配置写回快照并清空日志。所有写入都在 {@link ConfigWriter} 的后台线程中按提交顺序执行。
+ * JSON与二进制快照使用不同的文件，加载时读取存在的快照，两者都存在时读取较新的一个；写入一种格式的快照后删除另一种
+ */
+public class RGRuleJournal {
+    // 触发压缩的日志记录数量
+    public static final int COMPACT_THRESHOLD = 256;
+    // JSON快照文件路径
+    private final Path snapshot;
+    // 二进制快照文件路径
+    private final Path binarySnapshot;
+    // 日志文件路径
+    private final Path journal;
+    // 日志中的记录数量
+    private int records = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param snapshot       JSON快照文件路径，日志文件位于同一目录下并以 .journal 结尾
+     * @param binarySnapshot 二进制快照文件路径
+     */
+    public RGRuleJournal(@NotNull Path snapshot, @NotNull Path binarySnapshot) {
+        this.snapshot = snapshot;
+        this.binarySnapshot = binarySnapshot;
+        this.journal = snapshot.resolveSibling(snapshot.getFileName() + ".journal");
+    }
+
+    /**
+     * 读取快照并在其上重放日志
+     * 无法解析的记录（例如崩溃时写入一半的最后一行）会被忽略
+     *
+     * @return 合并后的配置
+     */
+    public @NotNull JsonObject load() {
+        JsonObject config = ConfigUtil.getOrCreateContent(this.current());
+        this.records = 0;
+        if (!Files.isRegularFile(this.journal)) return config;
+        try (BufferedReader reader = Files.newBufferedReader(this.journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+                    for (Map.Entry<String, JsonElement> entry : record.entrySet()) {
+                        config.add(entry.getKey(), entry.getValue());
+                    }
+                    this.records++;
+                } catch (JsonParseException | IllegalStateException e) {
+                    RollingGate.LOGGER.warn("Skipped broken rule journal record: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            RollingGate.LOGGER.error("Failed to read rolling gate config journal", e);
+        }
+        return config;
+    }
+
+    /**
+     * 获取应当读取的快照，只有一种格式的快照存在时读取该快照，都存在时读取较新的快照
+     *
+     * @return 快照文件路径
+     */
+    private @NotNull Path current() {
+        if (!Files.isRegularFile(this.binarySnapshot)) return this.snapshot;
+        if (!Files.isRegularFile(this.snapshot)) return this.binarySnapshot;
+        try {
+            return Files.getLastModifiedTime(this.binarySnapshot).compareTo(Files.getLastModifiedTime(this.snapshot)) > 0 ? this.binarySnapshot : this.snapshot;
+        } catch (IOException e) {
+            return this.snapshot;
+        }
+    }
+
+    /**
+     * 追加一条修改记录
+     *
+     * @param key   规则的序列化名称
+     * @param value 规则值的json表示
+     */
+    public void append(@NotNull String key, @NotNull JsonElement value) {
+        JsonObject record = new JsonObject();
+        record.add(key, value);
+        String line = record + "\n";
+        this.records++;
+        ConfigWriter.submit(() -> {
+            try {
+                Files.writeString(this.journal, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                ConfigWriter.markWritten(this.journal);
+            } catch (IOException e) {
+                RollingGate.LOGGER.error("Failed to append rolling gate config journal", e);
+            }
+        });
+    }
+
+    /**
+     * 获取指定格式的快照文件路径
+     *
+     * @param binary 是否为二进制格式
+     * @return 快照文件路径
+     */
+    public @NotNull Path getSnapshot(boolean binary) {
+        return binary ? this.binarySnapshot : this.snapshot;
+    }
+
+    /**
+     * 获取日志文件路径
+     *
+     * @return 日志文件路径
+     */
+    public @NotNull Path getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * 检查日志是否需要压缩
+     *
+     * @return 如果日志记录数量超过阈值则返回true
+     */
+    public boolean needsCompaction() {
+        return this.records >= COMPACT_THRESHOLD;
+    }
+
+    /**
+     * 检查日志中是否存在记录
+     *
+     * @return 如果日志中存在记录则返回true
+     */
+    public boolean isEmpty() {
+        return this.records == 0;
+    }
+
+    /**
+     * 以指定格式保存完整配置
+     * 日志中没有记录且不存在另一种格式的快照时只计划写入快照，否则压缩日志并删除另一种格式的快照
+     *
+     * @param content 完整配置内容写入器，在后台线程中调用
+     * @param binary  是否写入二进制格式
+     */
+    public void save(@NotNull ConfigUtil.ContentWriter content, boolean binary) {
+        // 格式切换前计划的另一种格式的写入已经过时
+        ConfigWriter.discard(this.getSnapshot(!binary));
+        if (this.isEmpty() && !Files.exists(this.getSnapshot(!binary))) {
+            ConfigWriter.schedule(this.getSnapshot(binary), content);
+        } else {
+            // 日志中仍有记录时必须在写入快照后清空日志，否则重放会覆盖新的快照
+            this.compact(content, binary);
+        }
+    }
+
+    /**
+     * 将完整配置写回快照并清空日志
+     * 快照先于日志清空与另一种格式的快照删除写入，两者之间崩溃时加载得到的结果不变
+     *
+     * @param content 完整配置内容写入器，在后台线程中调用
+     * @param binary  是否写入二进制格式
+     */
+    public void compact(@NotNull ConfigUtil.ContentWriter content, boolean binary) {
+        Path target = this.getSnapshot(binary);
+        Path other = this.getSnapshot(!binary);
+        this.records = 0;
+        ConfigWriter.discard(target);
+        ConfigWriter.discard(other);
+        ConfigWriter.submit(() -> {
+            ConfigUtil.writeContentAtomically(target, content);
+            ConfigWriter.markWritten(target);
+            try {
+                Files.deleteIfExists(other);
+                ConfigWriter.markWritten(other);
+                Files.deleteIfExists(this.journal);
+                ConfigWriter.markWritten(this.journal);
+            } catch (IOException e) {
+                RollingGate.LOGGER.error("Failed to clear rolling gate config journal", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,274 @@
+package dev.anvilcraft.rg.api.server;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RGSuggestionIndex类是不可变的命令补全索引
+ * <p>
+ * 匹配键按小写字典序保存在数组中，共享同一前缀的键在数组中相邻，相当于展开成数组的前缀树：
+ * 二分查找定位前缀的起点后顺序读取即可，不需要遍历全部条目。没有前缀匹配时按编辑距离给出最接近的几项，
+ * 用于纠正拼写错误。查找时的分配只与输入长度和结果数量有关，与条目数量无关。
+ * 添加条目时只排序新条目并与已有数组归并，生成新的索引
+ */
+public final class RGSuggestionIndex {
+    public static final RGSuggestionIndex EMPTY = new RGSuggestionIndex(new String[0], new String[0], new String[0]);
+    // 模糊匹配返回的最大条目数
+    private static final int FUZZY_LIMIT = 8;
+    // 模糊匹配允许的最大编辑距离
+    private static final int MAX_DISTANCE = 2;
+    // 小写的匹配键，按字典序排列
+    private final String[] keys;
+    // 每个匹配键对应的补全文本
+    private final String[] texts;
+    // 每个匹配键对应的提示，没有提示时为null
+    private final String[] tooltips;
+
+    private RGSuggestionIndex(String[] keys, String[] texts, String[] tooltips) {
+        this.keys = keys;
+        this.texts = texts;
+        this.tooltips = tooltips;
+    }
+
+    /**
+     * 使用一组条目创建索引
+     *
+     * @param entries 条目
+     * @return 新的索引
+     */
+    public static @NotNull RGSuggestionIndex of(@NotNull Collection<Entry> entries) {
+        return RGSuggestionIndex.EMPTY.with(entries);
+    }
+
+    /**
+     * 为每个值创建匹配键与补全文本相同的索引
+     *
+     * @param values 值
+     * @return 新的索引
+     */
+    public static @NotNull RGSuggestionIndex of(String @NotNull ... values) {
+        List<Entry> entries = new ArrayList<>(values.length);
+        for (String value : values) entries.add(new Entry(value, value, null));
+        return RGSuggestionIndex.of(entries);
+    }
+
+    /**
+     * 添加条目，当前索引保持不变
+     *
+     * @param entries 要添加的条目
+     * @return 包含原有条目与新条目的索引
+     */
+    public @NotNull RGSuggestionIndex with(@NotNull Collection<Entry> entries) {
+        if (entries.isEmpty()) return this;
+        List<Entry> added = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            added.add(new Entry(entry.key().toLowerCase(Locale.ROOT), entry.text(), entry.tooltip()));
+        }
+        added.sort(Comparator.comparing(Entry::key).thenComparing(Entry::text));
+        int length = this.keys.length + added.size();
+        String[] keys = new String[length];
+        String[] texts = new String[length];
+        String[] tooltips = new String[length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < this.keys.length || j < added.size()) {
+            String key;
+            String text;
+            String tooltip;
+            if (j >= added.size() || i < this.keys.length && RGSuggestionIndex.compare(this.keys[i], this.texts[i], added.get(j)) <= 0) {
+                key = this.keys[i];
+                text = this.texts[i];
+                tooltip = this.tooltips[i];
+                i++;
+            } else {
+                Entry entry = added.get(j);
+                key = entry.key();
+                text = entry.text();
+                tooltip = entry.tooltip();
+                j++;
+            }
+            // 跳过完全相同的条目
+            if (size > 0 && keys[size - 1].equals(key) && texts[size - 1].equals(text)) continue;
+            keys[size] = key;
+            texts[size] = text;
+            tooltips[size] = tooltip;
+            size++;
+        }
+        if (size < length) {
+            keys = Arrays.copyOf(keys, size);
+            texts = Arrays.copyOf(texts, size);
+            tooltips = Arrays.copyOf(tooltips, size);
+        }
+        return new RGSuggestionIndex(keys, texts, tooltips);
+    }
+
+    /**
+     * 获取条目数量
+     *
+     * @return 条目数量
+     */
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * 根据补全构建器中剩余的输入给出补全
+     *
+     * @param builder 补全构建器
+     * @return 补全结果
+     */
+    public @NotNull CompletableFuture<Suggestions> suggest(@NotNull SuggestionsBuilder builder) {
+        return this.suggest(builder, "");
+    }
+
+    /**
+     * 根据补全构建器中剩余的输入给出补全
+     *
+     * @param builder 补全构建器
+     * @param suffix  附加在每个补全文本之后的后缀
+     * @return 补全结果
+     */
+    public @NotNull CompletableFuture<Suggestions> suggest(@NotNull SuggestionsBuilder builder, @NotNull String suffix) {
+        return this.suggest(builder, suffix, false);
+    }
+
+    /**
+     * 根据补全构建器中剩余的输入给出可以被 {@link StringArgumentType#string()} 解析的补全
+     * 含有不能出现在无引号字符串中的字符的补全文本会被加上引号，匹配时忽略输入开头的引号
+     *
+     * @param builder 补全构建器
+     * @return 补全结果
+     */
+    public @NotNull CompletableFuture<Suggestions> suggestQuoted(@NotNull SuggestionsBuilder builder) {
+        return this.suggest(builder, "", true);
+    }
+
+    private @NotNull CompletableFuture<Suggestions> suggest(@NotNull SuggestionsBuilder builder, @NotNull String suffix, boolean quote) {
+        String input = builder.getRemainingLowerCase();
+        if (quote && input.startsWith("\"")) input = input.substring(1);
+        int start = this.lowerBound(input);
+        boolean matched = false;
+        for (int i = start; i < this.keys.length && this.keys[i].startsWith(input); i++) {
+            this.suggest(builder, i, suffix, quote);
+            matched = true;
+        }
+        if (!matched && input.length() >= MAX_DISTANCE) this.suggestFuzzy(builder, input, suffix, quote);
+        return builder.buildFuture();
+    }
+
+    private void suggest(@NotNull SuggestionsBuilder builder, int index, @NotNull String suffix, boolean quote) {
+        String text = this.texts[index];
+        if (quote && !RGSuggestionIndex.isUnquoted(text)) text = "\"" + text + "\"";
+        if (!suffix.isEmpty()) text = text + suffix;
+        String tooltip = this.tooltips[index];
+        if (tooltip == null) {
+            builder.suggest(text);
+        } else {
+            builder.suggest(text, Component.literal(tooltip));
+        }
+    }
+
+    private static boolean isUnquoted(@NotNull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!StringReader.isAllowedInUnquotedString(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private void suggestFuzzy(@NotNull SuggestionsBuilder builder, @NotNull String input, @NotNull String suffix, boolean quote) {
+        // 按编辑距离保留最接近的几项，距离相同时保持字典序
+        int[] best = new int[FUZZY_LIMIT];
+        int[] distances = new int[FUZZY_LIMIT];
+        int count = 0;
+        int[] previous = new int[input.length() + 1];
+        int[] current = new int[input.length() + 1];
+        for (int i = 0; i < this.keys.length; i++) {
+            int distance = RGSuggestionIndex.prefixDistance(this.keys[i], input, previous, current);
+            if (distance > MAX_DISTANCE) continue;
+            if (count == FUZZY_LIMIT && distance >= distances[count - 1]) continue;
+            int position = count == FUZZY_LIMIT ? count - 1 : count++;
+            while (position > 0 && distances[position - 1] > distance) {
+                best[position] = best[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            best[position] = i;
+            distances[position] = distance;
+        }
+        for (int i = 0; i < count; i++) this.suggest(builder, best[i], suffix, quote);
+    }
+
+    /**
+     * 计算输入与匹配键任意前缀之间的最小编辑距离，超过最大距离时提前结束
+     *
+     * @param key      匹配键
+     * @param input    输入
+     * @param previous 上一行的距离，长度为输入长度加一
+     * @param current  当前行的距离，长度为输入长度加一
+     * @return 最小编辑距离
+     */
+    private static int prefixDistance(@NotNull String key, @NotNull String input, int @NotNull [] previous, int @NotNull [] current) {
+        int length = input.length();
+        for (int j = 0; j <= length; j++) previous[j] = j;
+        int best = previous[length];
+        for (int i = 1; i <= key.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char c = key.charAt(i - 1);
+            for (int j = 1; j <= length; j++) {
+                int cost = c == input.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            best = Math.min(best, current[length]);
+            // 之后的行不会小于本行的最小值
+            if (rowMin > MAX_DISTANCE) break;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+
+    private int lowerBound(@NotNull String input) {
+        int low = 0;
+        int high = this.keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.keys[middle].compareTo(input) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(@NotNull String key, @NotNull String text, @NotNull Entry entry) {
+        int result = key.compareTo(entry.key());
+        return result != 0 ? result : text.compareTo(entry.text());
+    }
+
+    /**
+     * 索引中的条目
+     *
+     * @param key     匹配键
+     * @param text    补全文本
+     * @param tooltip 提示，没有提示时为null
+     */
+    public record Entry(@NotNull String key, @NotNull String text, String tooltip) {
+    }
+}
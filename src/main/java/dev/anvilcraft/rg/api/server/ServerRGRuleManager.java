@@ -1,21 +1,30 @@
 package dev.anvilcraft.rg.api.server;
 
+import com.google.gson.JsonParseException;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.mojang.brigadier.tree.LiteralCommandNode;
+import dev.anvilcraft.rg.RollingGate;
+import dev.anvilcraft.rg.RollingGateServerRules;
 import dev.anvilcraft.rg.api.ConfigUtil;
+import dev.anvilcraft.rg.api.ConfigWriter;
 import dev.anvilcraft.rg.api.RGEnvironment;
 import dev.anvilcraft.rg.api.RGRule;
 import dev.anvilcraft.rg.api.RGRuleException;
 import dev.anvilcraft.rg.api.RGRuleManager;
+import dev.anvilcraft.rg.api.RGRulePartition;
+import dev.anvilcraft.rg.api.RGRuleStore;
+import dev.anvilcraft.rg.api.RGRuleTransaction;
+import dev.anvilcraft.rg.api.event.RGRuleBatchChangeEvent;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
-import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
@@ -30,21 +39,43 @@ import net.neoforged.neoforgespi.language.IModInfo;
 import org.apache.commons.lang3.function.TriFunction;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * 服务器端RGRule管理器类，继承自RGRuleManager
  * 用于管理服务器端的规则，包括规则的设置、重新初始化以及命令生成
  */
 public class ServerRGRuleManager extends RGRuleManager {
-    // 世界配置文件路径
-    private final LevelResource worldConfigPath;
-    // 用于存储世界特定规则配置的映射
-    private final Map<RGRule<?>, Object> worldConfig = new HashMap<>();
+    // 类别列表每页显示的规则数
+    private static final int PAGE_SIZE = 10;
+    // 配置文件监视器，未启用热重载时为null
+    private RGConfigWatcher watcher = null;
+    // 尚未加入补全索引的规则
+    private final List<RGRule<?>> pendingSuggestions = new ArrayList<>();
+    // 已加入补全索引的类别
+    private final Set<String> indexedCategories = new HashSet<>();
+    // 规则名称与翻译名称的补全索引
+    private volatile RGSuggestionIndex ruleNameIndex = RGSuggestionIndex.EMPTY;
+    // 类别与翻译名称的补全索引
+    private volatile RGSuggestionIndex categoryIndex = RGSuggestionIndex.EMPTY;
+    // 每个规则可选值的补全索引，按规则索引以区分不同命名空间中的同名规则
+    private final Map<RGRule<?>, RGSuggestionIndex> valueIndexes = new ConcurrentHashMap<>();
+    // 是否正在生成发送给玩家的命令树，只在服务器线程中修改
+    private static boolean sendingCommandTree = false;
 
     /**
      * 构造函数
@@ -54,12 +85,120 @@ public class ServerRGRuleManager extends RGRuleManager {
      */
     public ServerRGRuleManager(String namespace) {
         super(namespace, RGEnvironment.SERVER);
-        this.worldConfigPath = new LevelResource("%s.json".formatted(namespace));
+    }
+
+    @Override
+    protected @NotNull ServerRGRulePartition createPartition(@NotNull String namespace) {
+        return new ServerRGRulePartition(namespace, this.getGlobalConfigPath(namespace));
+    }
+
+    @Override
+    public void addRule(@NotNull RGRule<?> rule) {
+        super.addRule(rule);
+        // 补全索引在下次补全时批量更新
+        synchronized (this.pendingSuggestions) {
+            this.pendingSuggestions.add(rule);
+        }
+    }
+
+    /**
+     * 获取规则名称的补全索引，包含规则名称与各语言的翻译名称
+     *
+     * @return 补全索引
+     */
+    public @NotNull RGSuggestionIndex getRuleNameIndex() {
+        this.refreshSuggestions();
+        return this.ruleNameIndex;
+    }
+
+    /**
+     * 获取类别的补全索引，包含类别名称与各语言的翻译名称
+     *
+     * @return 补全索引
+     */
+    public @NotNull RGSuggestionIndex getCategoryIndex() {
+        this.refreshSuggestions();
+        return this.categoryIndex;
+    }
+
+    /**
+     * 获取规则可选值的补全索引
+     *
+     * @param rule 规则
+     * @return 补全索引
+     */
+    public @NotNull RGSuggestionIndex getValueIndex(@NotNull RGRule<?> rule) {
+        this.refreshSuggestions();
+        return this.valueIndexes.getOrDefault(rule, RGSuggestionIndex.EMPTY);
+    }
+
+    /**
+     * 把新注册的规则加入补全索引，只归并新增的条目
+     */
+    private void refreshSuggestions() {
+        synchronized (this.pendingSuggestions) {
+            if (this.pendingSuggestions.isEmpty()) return;
+            List<RGSuggestionIndex.Entry> names = new ArrayList<>();
+            List<RGSuggestionIndex.Entry> categoryEntries = new ArrayList<>();
+            for (RGRule<?> rule : this.pendingSuggestions) {
+                String qualified = ServerRGRuleManager.qualifiedName(rule);
+                names.add(new RGSuggestionIndex.Entry(rule.name(), rule.name(), null));
+                names.add(new RGSuggestionIndex.Entry(qualified, qualified, null));
+                ServerRGRuleManager.addTranslations(names, rule.getNameTranslationKey(), rule.name());
+                this.valueIndexes.put(rule, RGSuggestionIndex.of(rule.allowed()));
+                for (String category : rule.categories()) {
+                    if (!this.indexedCategories.add(category)) continue;
+                    categoryEntries.add(new RGSuggestionIndex.Entry(category, category, null));
+                    ServerRGRuleManager.addTranslations(categoryEntries, this.getDescriptionCategoryKey(category), category);
+                }
+            }
+            this.pendingSuggestions.clear();
+            this.ruleNameIndex = this.ruleNameIndex.with(names);
+            this.categoryIndex = this.categoryIndex.with(categoryEntries);
+        }
+    }
+
+    /**
+     * 获取带有命名空间的规则名称，用于区分不同命名空间中的同名规则
+     *
+     * @param rule 规则
+     * @return 格式为 命名空间:规则名称 的名称
+     */
+    public static @NotNull String qualifiedName(@NotNull RGRule<?> rule) {
+        return "%s:%s".formatted(rule.namespace(), rule.name());
+    }
+
+    private static void addTranslations(@NotNull List<RGSuggestionIndex.Entry> entries, @NotNull String key, @NotNull String text) {
+        for (Map<String, String> translations : TranslationUtil.LANGUAGES.values()) {
+            String translated = translations.get(key);
+            if (translated != null && !translated.equals(text)) entries.add(new RGSuggestionIndex.Entry(translated, text, translated));
+        }
+    }
+
+    /**
+     * 获取规则所属命名空间的分区
+     *
+     * @param namespace 命名空间
+     * @return 服务器端规则分区
+     */
+    private @NotNull ServerRGRulePartition partition(@NotNull String namespace) {
+        return (ServerRGRulePartition) this.getPartition(namespace);
+    }
+
+    /**
+     * 获取规则在世界配置中的值
+     *
+     * @param rule 规则
+     * @return 世界配置中的值，如果未配置则返回null
+     */
+    public Object getWorldValue(@NotNull RGRule<?> rule) {
+        return this.partition(rule.namespace()).getWorldConfig().get(rule);
     }
 
     /**
      * 设置世界配置
-     * 将指定规则的值存储到世界配置中，并更新配置文件
+     * 将指定规则的值存储到所属命名空间的世界配置中，并在后台只更新该命名空间的配置文件
+     * 启用追加日志时只追加一条记录，记录过多时再压缩为完整配置
      *
      * @param server 服务器实例，用于访问世界路径
      * @param rule   要设置的规则
@@ -67,24 +206,350 @@ public class ServerRGRuleManager extends RGRuleManager {
      * @param <T>    规则值的类型
      */
     public <T> void setWorldConfig(@NotNull MinecraftServer server, @NotNull RGRule<T> rule, T value) {
-        this.worldConfig.put(rule, value);
-        ConfigUtil.writeContent(server.getWorldPath(worldConfigPath), GSON.toJson(this.getSerializedConfig(this.worldConfig)));
+        this.putWorldConfig(server, rule, value);
+        this.saveWorldConfig(server);
+    }
+
+    /**
+     * 将规则的值存入世界配置，启用追加日志时追加一条记录，否则将分区标记为脏，不会写入快照
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @param rule   要设置的规则
+     * @param value  规则的值
+     */
+    private void putWorldConfig(@NotNull MinecraftServer server, @NotNull RGRule<?> rule, Object value) {
+        ServerRGRulePartition partition = this.partition(rule.namespace());
+        partition.getWorldConfig().put(rule, value);
+        partition.bumpModCount();
+        RGRuleJournal journal = partition.getJournal(server);
+        if (RollingGateServerRules.configJournal) {
+            journal.append(rule.serialize(), GSON.toJsonTree(value));
+            if (!journal.needsCompaction()) return;
+        }
+        partition.markDirty();
+    }
+
+    /**
+     * 创建规则事务
+     *
+     * @param server 服务器实例
+     * @return 新的规则事务
+     */
+    public @NotNull RGRuleTransaction transaction(@NotNull MinecraftServer server) {
+        return new RGRuleTransaction(this, server);
+    }
+
+    /**
+     * 作为一个事务同时修改多个规则，并将新值保存为世界配置
+     * 所有值都合法时才会修改规则，只发布一次批量变更事件，所有涉及的命名空间只保存一次
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @param values 规则及其新值的序列化字符串
+     * @return 实际发生的变更
+     * @throws RGRuleException 如果任何值非法或写入失败，则抛出此异常，此时所有规则保持原值
+     */
+    public @NotNull List<RGRuleBatchChangeEvent.Change<?>> applyBatch(@NotNull MinecraftServer server, @NotNull Map<RGRule<?>, String> values) {
+        RGRuleTransaction transaction = this.transaction(server);
+        values.forEach(transaction::set);
+        List<RGRuleBatchChangeEvent.Change<?>> changes = transaction.commit();
+        if (changes.isEmpty()) return changes;
+        for (RGRuleBatchChangeEvent.Change<?> change : changes) {
+            this.putWorldConfig(server, change.rule(), change.newValue());
+        }
+        this.saveWorldConfig(server);
+        return changes;
+    }
+
+    /**
+     * 在后台将所有脏分区的完整世界配置写入各自的配置文件，格式由 {@link RollingGateServerRules#configFormat} 决定
+     *
+     * @param server 服务器实例，用于访问世界路径
+     */
+    private void saveWorldConfig(@NotNull MinecraftServer server) {
+        boolean binary = "binary".equals(RollingGateServerRules.configFormat);
+        for (RGRulePartition value : this.partitions.values()) {
+            ServerRGRulePartition partition = (ServerRGRulePartition) value;
+            if (!partition.isDirty()) continue;
+            partition.clearDirty();
+            // 在服务器线程复制配置，序列化与写入在后台完成
+            partition.getJournal(server).save(this.getSerializedConfig(partition.getWorldConfig(), binary), binary);
+        }
     }
 
     /**
      * 重新初始化世界配置
-     * 清空当前世界配置，并从配置文件中重新加载配置
+     * 合并全局配置与世界配置后与当前值比较，只有值发生变化的规则会被重新设置
      *
      * @param server 服务器实例，用于访问世界路径
      */
     public void reInit(@NotNull MinecraftServer server) {
-        super.reInit();
-        this.worldConfig.clear();
-        Map<RGRule<?>, Object> world = this.setSaveRules(ConfigUtil.getOrCreateContent(server.getWorldPath(worldConfigPath)));
-        for (Map.Entry<RGRule<?>, Object> entry : world.entrySet()) {
-            if (entry.getValue().equals(this.globalConfig.get(entry.getKey()))) continue;
-            this.worldConfig.put(entry.getKey(), entry.getValue());
+        this.reload(server);
+    }
+
+    /**
+     * 重新加载全局配置与世界配置，与 {@link #reInit(MinecraftServer)} 相同，但返回值发生变化的规则
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @return 返回值发生变化的规则集合
+     */
+    public @NotNull Set<RGRule<?>> reload(@NotNull MinecraftServer server) {
+        // 先写入尚未落盘的配置，避免重新加载时读到旧内容
+        ConfigWriter.flush();
+        return this.apply(server, this.load(server, this.partitions.keySet()));
+    }
+
+    /**
+     * 依次读取并解析指定命名空间的全局配置与世界配置，不会修改任何规则，可以在服务器线程以外调用
+     * 管理器自身的命名空间总是会被读取，因为其中可能保存着其他命名空间遗留的配置。
+     * 所有值都会被解码并经过规则的验证器检查，无法读取或含有非法值的命名空间记录在 {@link LoadedConfig#failed()} 中且不会被应用
+     *
+     * @param server     服务器实例，用于访问世界路径
+     * @param namespaces 需要读取的命名空间
+     * @return 解析后的配置
+     */
+    @NotNull LoadedConfig load(@NotNull MinecraftServer server, @NotNull Collection<String> namespaces) {
+        Set<String> targets = new HashSet<>(namespaces);
+        ServerRGRulePartition own = (ServerRGRulePartition) this.partitions.get(this.managerNamespace);
+        if (own != null) {
+            targets.add(this.managerNamespace);
+            // 分区之前所有规则都保存在管理器命名空间的旧世界配置文件中
+            LevelResource legacy = new LevelResource("%s.json".formatted(this.managerNamespace));
+            ConfigUtil.migrateLegacy(server.getWorldPath(legacy), server.getWorldPath(own.getWorldConfigPath()));
+        }
+        targets.removeIf(namespace -> !this.partitions.containsKey(namespace));
+        // 在读取文件之前记录修改计数，应用时据此判断读取期间世界配置是否在游戏内被修改
+        Map<String, Long> modCounts = new HashMap<>();
+        for (String namespace : targets) modCounts.put(namespace, this.partition(namespace).getModCount());
+        Map<String, Map<RGRule<?>, String>> globalFiles = this.readGlobalFiles(targets);
+        Map<String, RGRuleJournal> journals = new HashMap<>();
+        Map<String, Map<RGRule<?>, String>> read = new HashMap<>();
+        for (String namespace : targets) {
+            ServerRGRulePartition partition = this.partition(namespace);
+            RGRuleJournal journal = partition.createJournal(server);
+            try {
+                read.put(namespace, this.readRules(partition, journal.load()));
+                journals.put(namespace, journal);
+            } catch (JsonParseException | RGRuleException e) {
+                RollingGate.LOGGER.error("Failed to read world rule config of {}, skipped.", namespace, e);
+            }
+        }
+        Map<String, Map<RGRule<?>, String>> global = RGRuleManager.groupByNamespace(globalFiles);
+        Map<String, Map<RGRule<?>, String>> world = RGRuleManager.groupByNamespace(read);
+        // 任何一个配置文件无法读取或含有非法值的命名空间整体跳过，保持当前值与磁盘上的文件不变
+        Set<String> loaded = new HashSet<>(journals.keySet());
+        loaded.retainAll(globalFiles.keySet());
+        loaded.removeIf(namespace -> !ServerRGRuleManager.isValid(namespace, global.get(namespace)) || !ServerRGRuleManager.isValid(namespace, world.get(namespace)));
+        journals.keySet().retainAll(loaded);
+        Set<String> failed = new HashSet<>(targets);
+        failed.removeAll(loaded);
+        // 管理器命名空间的世界配置中遗留的其他命名空间的规则需要迁移到所属命名空间的配置文件
+        Set<String> migrated = new HashSet<>();
+        for (RGRule<?> rule : read.getOrDefault(this.managerNamespace, Map.of()).keySet()) {
+            if (!rule.namespace().equals(this.managerNamespace)) migrated.add(rule.namespace());
+        }
+        // 只有遗留规则所属的命名空间都被读取时才能从管理器命名空间的配置文件中移除这些规则
+        if (!migrated.isEmpty() && loaded.contains(this.managerNamespace) && loaded.containsAll(migrated)) {
+            migrated.add(this.managerNamespace);
+        } else {
+            migrated.retainAll(loaded);
+        }
+        modCounts.keySet().retainAll(loaded);
+        return new LoadedConfig(global, world, journals, migrated, modCounts, failed);
+    }
+
+    /**
+     * 解码并验证一个命名空间读取到的所有值
+     *
+     * @param namespace 命名空间
+     * @param values    规则及其序列化值，可以为null
+     * @return 所有值都合法时返回true
+     */
+    private static boolean isValid(@NotNull String namespace, Map<RGRule<?>, String> values) {
+        if (values == null) return true;
+        for (Map.Entry<RGRule<?>, String> entry : values.entrySet()) {
+            RGRule<?> rule = entry.getKey();
+            try {
+                if (rule.codec().decode(entry.getValue()) == null) throw new RGRuleException("Illegal value: %s", entry.getValue());
+                rule.validate(entry.getValue());
+            } catch (RuntimeException e) {
+                RollingGate.LOGGER.error("Invalid value {} for rule {} in config of {}, skipped.", entry.getValue(), rule.name(), namespace, e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断解析后的配置是否仍然有效，即读取之后涉及的命名空间的世界配置没有在游戏内被修改
+     *
+     * @param loaded 解析后的配置
+     * @return 配置仍然有效时返回true
+     */
+    boolean isCurrent(@NotNull LoadedConfig loaded) {
+        for (Map.Entry<String, Long> entry : loaded.modCounts().entrySet()) {
+            if (this.partition(entry.getKey()).getModCount() != entry.getValue()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 应用解析后的配置，必须在服务器线程调用
+     * 先替换所有命名空间的全局配置与世界配置，再一次性设置值发生变化的规则，变更监听器看到的配置总是完整的。
+     * 之前存在于任意一层配置中、但已经从两层配置文件中删除的规则恢复为默认值
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @param loaded 解析后的配置
+     * @return 返回值发生变化的规则集合
+     */
+    @NotNull Set<RGRule<?>> apply(@NotNull MinecraftServer server, @NotNull LoadedConfig loaded) {
+        Map<RGRule<?>, String> target = new HashMap<>();
+        for (Map.Entry<String, RGRuleJournal> entry : loaded.journals().entrySet()) {
+            ServerRGRulePartition partition = this.partition(entry.getKey());
+            partition.setJournal(entry.getValue());
+            Map<RGRule<?>, String> global = loaded.global().getOrDefault(entry.getKey(), Map.of());
+            Map<RGRule<?>, String> world = loaded.world().getOrDefault(entry.getKey(), Map.of());
+            // 记录替换前两层配置中的规则，从文件中删除的规则需要恢复为默认值
+            Set<RGRule<?>> previous = new HashSet<>();
+            partition.getGlobalConfig().forEach((rule, value) -> previous.add(rule));
+            partition.getWorldConfig().forEach((rule, value) -> previous.add(rule));
+            this.setGlobalConfig(partition, global);
+            RGRuleStore worldConfig = partition.getWorldConfig();
+            worldConfig.clear();
+            for (Map.Entry<RGRule<?>, String> value : world.entrySet()) {
+                Object decoded = value.getKey().codec().decode(value.getValue());
+                if (decoded.equals(partition.getGlobalConfig().get(value.getKey()))) continue;
+                worldConfig.put(value.getKey(), decoded);
+            }
+            partition.bumpModCount();
+            if (loaded.migrated().contains(entry.getKey())) partition.markDirty();
+            // 世界配置覆盖全局配置
+            target.putAll(global);
+            target.putAll(world);
+            for (RGRule<?> rule : previous) {
+                if (!global.containsKey(rule) && !world.containsKey(rule)) target.put(rule, this.encode(rule, rule.defaultValue()));
+            }
+        }
+        Set<RGRule<?>> changed = this.applyChanged(target);
+        this.saveWorldConfig(server);
+        return changed;
+    }
+
+    /**
+     * 开始监视所有命名空间的配置文件，文件被外部修改后只重新加载所属命名空间中发生变化的规则
+     *
+     * @param server 服务器实例，用于访问世界路径
+     */
+    public void startWatching(@NotNull MinecraftServer server) {
+        if (this.watcher != null) return;
+        Map<Path, String> files = new HashMap<>();
+        for (RGRulePartition value : this.partitions.values()) {
+            ServerRGRulePartition partition = (ServerRGRulePartition) value;
+            RGRuleJournal journal = partition.createJournal(server);
+            files.put(partition.getGlobalConfigPath(), partition.getNamespace());
+            files.put(journal.getSnapshot(false), partition.getNamespace());
+            files.put(journal.getSnapshot(true), partition.getNamespace());
+            files.put(journal.getJournal(), partition.getNamespace());
         }
+        this.watcher = RGConfigWatcher.start(this, server, files);
+    }
+
+    /**
+     * 停止监视配置文件
+     */
+    public void stopWatching() {
+        if (this.watcher == null) return;
+        this.watcher.close();
+        this.watcher = null;
+    }
+
+    /**
+     * 将每个命名空间的世界配置以JSON格式导出到世界目录，便于手动编辑
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @return 导出的文件路径
+     * @throws RGRuleException 如果写入文件失败，则抛出此异常
+     */
+    public @NotNull List<Path> exportWorldConfig(@NotNull MinecraftServer server) {
+        List<Path> paths = new ArrayList<>();
+        for (RGRulePartition value : this.partitions.values()) {
+            ServerRGRulePartition partition = (ServerRGRulePartition) value;
+            Path path = server.getWorldPath(partition.getExportConfigPath());
+            ConfigUtil.writeContentAtomically(path, this.getSerializedConfig(partition.getWorldConfig(), false));
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    /**
+     * 从世界目录中导出的JSON文件导入世界配置，替换对应命名空间的世界配置并以当前格式保存
+     * 没有导出文件的命名空间保持不变
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @return 返回值发生变化的规则集合
+     * @throws RGRuleException 如果没有任何导出文件、文件无法解析或规则值非法，则抛出此异常
+     */
+    public @NotNull Set<RGRule<?>> importWorldConfig(@NotNull MinecraftServer server) {
+        Map<ServerRGRulePartition, Map<RGRule<?>, Object>> imported = new HashMap<>();
+        Map<RGRule<?>, String> target = new HashMap<>();
+        for (RGRulePartition value : this.partitions.values()) {
+            ServerRGRulePartition partition = (ServerRGRulePartition) value;
+            Path path = server.getWorldPath(partition.getExportConfigPath());
+            if (!Files.isRegularFile(path)) continue;
+            Map<RGRule<?>, String> world = this.readRules(partition, ConfigUtil.getOrCreateContent(path));
+            Map<RGRule<?>, Object> decoded = new HashMap<>();
+            for (Map.Entry<RGRule<?>, String> entry : world.entrySet()) {
+                if (!entry.getKey().namespace().equals(partition.getNamespace())) continue;
+                try {
+                    decoded.put(entry.getKey(), entry.getKey().codec().decode(entry.getValue()));
+                } catch (RuntimeException e) {
+                    throw new RGRuleException("Invalid value %s for rule %s", entry.getValue(), entry.getKey().name());
+                }
+                target.put(entry.getKey(), entry.getValue());
+            }
+            partition.getGlobalConfig().forEach((rule, global) -> target.putIfAbsent(rule, this.encode(rule, global)));
+            imported.put(partition, decoded);
+        }
+        if (imported.isEmpty()) throw new RGRuleException("No exported config file exists");
+        // 所有值都能解码后再修改规则，世界配置覆盖全局配置
+        Set<RGRule<?>> changed = this.applyChanged(target);
+        for (Map.Entry<ServerRGRulePartition, Map<RGRule<?>, Object>> entry : imported.entrySet()) {
+            ServerRGRulePartition partition = entry.getKey();
+            RGRuleStore worldConfig = partition.getWorldConfig();
+            worldConfig.clear();
+            for (Map.Entry<RGRule<?>, Object> value : entry.getValue().entrySet()) {
+                if (value.getValue().equals(partition.getGlobalConfig().get(value.getKey()))) continue;
+                worldConfig.put(value.getKey(), value.getValue());
+            }
+            partition.bumpModCount();
+            partition.markDirty();
+        }
+        this.saveWorldConfig(server);
+        return changed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> @NotNull String encode(@NotNull RGRule<T> rule, Object value) {
+        return rule.codec().encode((T) value);
+    }
+
+    /**
+     * 解析后的配置，均按命名空间索引
+     *
+     * @param global    全局配置
+     * @param world     世界配置
+     * @param journals  世界配置的追加日志，只包含可以应用的命名空间
+     * @param migrated  需要迁移遗留配置的命名空间
+     * @param modCounts 读取前各个命名空间的世界配置修改计数
+     * @param failed    无法读取或含有非法值的命名空间
+     */
+    record LoadedConfig(
+        Map<String, Map<RGRule<?>, String>> global,
+        Map<String, Map<RGRule<?>, String>> world,
+        Map<String, RGRuleJournal> journals,
+        Set<String> migrated,
+        Map<String, Long> modCounts,
+        Set<String> failed
+    ) {
     }
 
     /**
@@ -112,16 +577,84 @@ public class ServerRGRuleManager extends RGRuleManager {
         new Command(dispatcher, literal, redirect).generateCommand();
     }
 
+    /**
+     * 标记是否正在生成发送给玩家的命令树
+     *
+     * @param sending 开始生成时为true，生成结束后为false
+     */
+    public static void setSendingCommandTree(boolean sending) {
+        ServerRGRuleManager.sendingCommandTree = sending;
+    }
+
+    /**
+     * 判断一种形状的规则节点是否可用
+     * 两种形状同时注册在命令树中，发送给玩家的命令树只包含与紧凑命令树规则一致的形状，切换时只需重新发送命令树；
+     * 服务器解析命令时两种形状都可用，否则隐藏的规则字面量节点会遮蔽紧凑形状中同名的规则名称参数
+     *
+     * @param compact 是否为紧凑形状
+     * @return 节点可用时返回true
+     */
+    private static boolean isCommandShapeUsable(boolean compact) {
+        return !ServerRGRuleManager.sendingCommandTree || RollingGateServerRules.compactCommandTree == compact;
+    }
+
 
     private class Command {
         @NotNull CommandDispatcher<CommandSourceStack> dispatcher;
         @NotNull String literal;
         String redirect;
+        // 按名称索引的规则，包含所有规则的 命名空间:规则名称 以及只属于一个命名空间的规则名称
+        @NotNull Map<String, RGRule<?>> index = new LinkedHashMap<>();
+        // 多个命名空间中都存在的规则名称及其带有命名空间的名称
+        @NotNull Map<String, List<String>> ambiguous = new LinkedHashMap<>();
+        // 每个规则渲染好的输出
+        @NotNull Map<RGRule<?>, RenderedRule> rendered = new ConcurrentHashMap<>();
 
         private Command(@NotNull CommandDispatcher<CommandSourceStack> dispatcher, @NotNull String literal, String redirect) {
             this.dispatcher = dispatcher;
             this.literal = literal;
             this.redirect = redirect;
+            Map<String, List<RGRule<?>>> byName = new LinkedHashMap<>();
+            for (RGRule<?> rule : getRules()) {
+                this.index.put(ServerRGRuleManager.qualifiedName(rule), rule);
+                byName.computeIfAbsent(rule.name(), k -> new ArrayList<>()).add(rule);
+            }
+            for (Map.Entry<String, List<RGRule<?>>> entry : byName.entrySet()) {
+                if (entry.getValue().size() == 1) {
+                    this.index.put(entry.getKey(), entry.getValue().get(0));
+                } else {
+                    this.ambiguous.put(entry.getKey(), entry.getValue().stream().map(ServerRGRuleManager::qualifiedName).toList());
+                }
+            }
+        }
+
+        /**
+         * 获取规则字面量节点的名称，同名规则使用带有命名空间的名称
+         */
+        private @NotNull String literalName(@NotNull RGRule<?> rule) {
+            if (!this.ambiguous.containsKey(rule.name())) return rule.name();
+            return ServerRGRuleManager.qualifiedName(rule);
+        }
+
+        /**
+         * 获取命令中使用的规则名称，紧凑命令树中带有命名空间的名称还需要加上引号
+         */
+        private @NotNull String commandName(@NotNull RGRule<?> rule) {
+            String name = this.literalName(rule);
+            return RollingGateServerRules.compactCommandTree && this.ambiguous.containsKey(rule.name()) ? "\"%s\"".formatted(name) : name;
+        }
+
+        /**
+         * 按名称查找规则，名称可以是规则名称或 命名空间:规则名称
+         *
+         * @throws RGRuleException 规则不存在或名称对应多个命名空间中的规则时抛出
+         */
+        private @NotNull RGRule<?> lookup(@NotNull String name) {
+            RGRule<?> rule = this.index.get(name);
+            if (rule != null) return rule;
+            List<String> candidates = this.ambiguous.get(name);
+            if (candidates != null) throw new RGRuleException("Rule %s is ambiguous, use one of: %s", name, String.join(", ", candidates));
+            throw new RGRuleException("Unknown rule: %s", name);
         }
 
         private void generateCommand() {
@@ -132,17 +665,44 @@ public class ServerRGRuleManager extends RGRuleManager {
                     Commands.literal("reload")
                         .executes(this::reloadCommand)
                 )
+                .then(
+                    Commands.literal("batch")
+                        .then(
+                            Commands.argument("values", StringArgumentType.greedyString())
+                                .suggests(this::suggestBatchValues)
+                                .executes(this::batchCommand)
+                        )
+                )
+                .then(
+                    Commands.literal("export")
+                        .executes(this::exportCommand)
+                )
+                .then(
+                    Commands.literal("import")
+                        .executes(this::importCommand)
+                )
                 .then(
                     Commands.literal("category")
                         .then(
                             Commands.argument("category", StringArgumentType.word())
                                 .suggests(this::suggestRuleCategories)
                                 .executes(this::categoryCommand)
+                                .then(
+                                    Commands.argument("page", IntegerArgumentType.integer(1))
+                                        .executes(this::categoryPageCommand)
+                                )
                         )
+                )
+                .then(
+                    Commands.literal("all")
+                        .executes(this::allCommand)
                 );
             LiteralArgumentBuilder<CommandSourceStack> aDefault = Commands.literal("default");
+            // 同时注册两种形状，由紧凑命令树规则决定发送给玩家的形状
             listCommand(aDefault, this::defaultRuleCommand, false);
             listCommand(root, this::setRuleCommand, true);
+            compactCommand(aDefault, this::defaultRuleCommand, false);
+            compactCommand(root, this::setRuleCommand, true);
             root.then(aDefault);
             LiteralCommandNode<CommandSourceStack> register = dispatcher.register(root);
             if (redirect != null) dispatcher.register(
@@ -163,29 +723,134 @@ public class ServerRGRuleManager extends RGRuleManager {
         }
 
         private @NotNull CompletableFuture<Suggestions> suggestRuleCategories(final CommandContext<CommandSourceStack> context, final SuggestionsBuilder builder) {
-            return SharedSuggestionProvider.suggest(categories, builder);
+            return getCategoryIndex().suggest(builder);
         }
 
         private void listCommand(LiteralArgumentBuilder<CommandSourceStack> builder, TriFunction<CommandContext<CommandSourceStack>, RGRule<?>, String, Integer> execute, boolean list) {
-            for (Map.Entry<String, RGRule<?>> entry : rules.entrySet()) {
-                RGRule<?> rgRule = entry.getValue();
-                LiteralArgumentBuilder<CommandSourceStack> keyNode = Commands.literal(rgRule.name());
+            for (RGRule<?> rgRule : getRules()) {
+                LiteralArgumentBuilder<CommandSourceStack> keyNode = Commands.literal(this.literalName(rgRule))
+                    .requires(source -> ServerRGRuleManager.isCommandShapeUsable(false));
                 if (list) keyNode.executes(ctx -> this.ruleInfoCommand(ctx, rgRule));
                 keyNode.then(
                     Commands.argument("value", StringArgumentType.greedyString())
-                        .suggests((context, builder1) -> SharedSuggestionProvider.suggest(rgRule.allowed(), builder1))
+                        .suggests((context, builder1) -> getValueIndex(rgRule).suggest(builder1))
                         .executes(context -> execute.apply(context, rgRule, StringArgumentType.getString(context, "value")))
                 );
                 builder.then(keyNode);
             }
         }
 
+        /**
+         * 使用单个规则名称参数代替每个规则的字面量节点，命令树的大小与规则数量无关
+         */
+        private void compactCommand(LiteralArgumentBuilder<CommandSourceStack> builder, TriFunction<CommandContext<CommandSourceStack>, RGRule<?>, String, Integer> execute, boolean list) {
+            // 带有命名空间的名称需要加上引号
+            RequiredArgumentBuilder<CommandSourceStack, String> ruleNode = Commands.argument("rule", StringArgumentType.string())
+                .requires(source -> ServerRGRuleManager.isCommandShapeUsable(true))
+                .suggests(this::suggestRuleNames);
+            if (list) ruleNode.executes(context -> {
+                RGRule<?> rule = this.resolveRule(context);
+                return rule == null ? 0 : this.ruleInfoCommand(context, rule);
+            });
+            ruleNode.then(
+                Commands.argument("value", StringArgumentType.greedyString())
+                    .suggests(this::suggestRuleValues)
+                    .executes(context -> {
+                        RGRule<?> rule = this.resolveRule(context);
+                        return rule == null ? 0 : execute.apply(context, rule, StringArgumentType.getString(context, "value"));
+                    })
+            );
+            builder.then(ruleNode);
+        }
+
+        private RGRule<?> resolveRule(@NotNull CommandContext<CommandSourceStack> context) {
+            String name = StringArgumentType.getString(context, "rule");
+            RGRule<?> rule = this.index.get(name);
+            if (rule != null) return rule;
+            List<String> candidates = this.ambiguous.get(name);
+            Component message = candidates == null
+                ? TranslationUtil.trans("rolling_gate.command.exception.not_exist", name)
+                : TranslationUtil.trans("rolling_gate.command.exception.ambiguous", name, String.join(", ", candidates));
+            context.getSource().sendFailure(message.copy().withStyle(ChatFormatting.RED));
+            return null;
+        }
+
+        private @NotNull CompletableFuture<Suggestions> suggestRuleNames(final CommandContext<CommandSourceStack> context, final SuggestionsBuilder builder) {
+            return getRuleNameIndex().suggestQuoted(builder);
+        }
+
+        private @NotNull CompletableFuture<Suggestions> suggestRuleValues(final @NotNull CommandContext<CommandSourceStack> context, final SuggestionsBuilder builder) {
+            RGRule<?> rule = this.index.get(StringArgumentType.getString(context, "rule"));
+            if (rule == null) return builder.buildFuture();
+            return getValueIndex(rule).suggest(builder);
+        }
+
         private int reloadCommand(@NotNull CommandContext<CommandSourceStack> context) {
-            reInit(context.getSource().getServer());
+            Set<RGRule<?>> changed = reload(context.getSource().getServer());
             context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.reload.success").withStyle(ChatFormatting.GREEN), false);
+            String names = String.join(", ", changed.stream().map(RGRule::name).sorted().toList());
+            context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.reload.changed", changed.size(), names).withStyle(ChatFormatting.GRAY), false);
             return 1;
         }
 
+        private @NotNull CompletableFuture<Suggestions> suggestBatchValues(final CommandContext<CommandSourceStack> context, final @NotNull SuggestionsBuilder builder) {
+            // 只补全最后一个规则赋值
+            String input = builder.getRemaining();
+            int start = input.lastIndexOf(' ') + 1;
+            String current = input.substring(start);
+            SuggestionsBuilder offset = builder.createOffset(builder.getStart() + start);
+            int separator = current.indexOf('=');
+            if (separator < 0) return getRuleNameIndex().suggest(offset, "=");
+            RGRule<?> rule = this.index.get(current.substring(0, separator));
+            if (rule == null) return offset.buildFuture();
+            return getValueIndex(rule).suggest(builder.createOffset(builder.getStart() + start + separator + 1));
+        }
+
+        private int batchCommand(@NotNull CommandContext<CommandSourceStack> context) {
+            String input = StringArgumentType.getString(context, "values");
+            try {
+                Map<RGRule<?>, String> values = new LinkedHashMap<>();
+                for (String assignment : input.trim().split("\\s+")) {
+                    int separator = assignment.indexOf('=');
+                    if (separator <= 0) throw new RGRuleException("Illegal assignment: %s, expected rule=value", assignment);
+                    RGRule<?> rule = this.lookup(assignment.substring(0, separator));
+                    values.put(rule, assignment.substring(separator + 1));
+                }
+                List<RGRuleBatchChangeEvent.Change<?>> changes = applyBatch(context.getSource().getServer(), values);
+                String names = String.join(", ", changes.stream().map(change -> change.rule().name()).toList());
+                context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.batch.success", changes.size(), names).withStyle(ChatFormatting.GRAY), false);
+                return changes.size();
+            } catch (RGRuleException exception) {
+                context.getSource().sendFailure(Component.literal(exception.getMessage()).withStyle(ChatFormatting.RED));
+                return 0;
+            }
+        }
+
+        private int exportCommand(@NotNull CommandContext<CommandSourceStack> context) {
+            try {
+                List<Path> paths = exportWorldConfig(context.getSource().getServer());
+                String names = String.join(", ", paths.stream().map(path -> path.getFileName().toString()).toList());
+                context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.export.success", names).withStyle(ChatFormatting.GREEN), false);
+                return 1;
+            } catch (RGRuleException exception) {
+                context.getSource().sendFailure(Component.literal(exception.getMessage()).withStyle(ChatFormatting.RED));
+                return 0;
+            }
+        }
+
+        private int importCommand(@NotNull CommandContext<CommandSourceStack> context) {
+            try {
+                Set<RGRule<?>> changed = importWorldConfig(context.getSource().getServer());
+                context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.import.success").withStyle(ChatFormatting.GREEN), false);
+                String names = String.join(", ", changed.stream().map(RGRule::name).sorted().toList());
+                context.getSource().sendSuccess(() -> TranslationUtil.trans("rolling_gate.command.reload.changed", changed.size(), names).withStyle(ChatFormatting.GRAY), false);
+                return 1;
+            } catch (RGRuleException exception) {
+                context.getSource().sendFailure(Component.literal(exception.getMessage()).withStyle(ChatFormatting.RED));
+                return 0;
+            }
+        }
+
         private int listCommand(@NotNull CommandContext<CommandSourceStack> context) {
             Optional<? extends ModContainer> container = ModList.get().getModContainerById(managerNamespace);
             if (container.isPresent()) {
@@ -216,49 +881,75 @@ public class ServerRGRuleManager extends RGRuleManager {
             CommandSourceStack source = context.getSource();
             source.sendSuccess(() -> TranslationUtil.trans(rule.getNameTranslationKey()), false);
             source.sendSuccess(() -> TranslationUtil.trans(rule.getDescriptionTranslationKey()), false);
-            source.sendSuccess(() -> this.getValues(rule), false);
+            Component values = this.render(rule).values();
+            source.sendSuccess(() -> values, false);
             return 1;
         }
 
+        /**
+         * 获取规则渲染好的名称与可选值，规则值、世界配置、全局配置与语言都未变化时直接返回缓存
+         *
+         * @param rule 规则
+         * @return 渲染好的输出
+         */
+        private @NotNull RenderedRule render(@NotNull RGRule<?> rule) {
+            ServerRGRulePartition partition = partition(rule.namespace());
+            long value = rule.version();
+            long world = partition.getWorldConfig().version(rule);
+            long global = partition.getGlobalConfig().version(rule);
+            String language = RollingGateServerRules.language;
+            boolean compact = RollingGateServerRules.compactCommandTree;
+            RenderedRule cached = this.rendered.get(rule);
+            if (cached != null && cached.matches(value, world, global, language, compact)) return cached;
+            Component name = TranslationUtil.trans(rule.getNameTranslationKey())
+                .withStyle(Style.EMPTY.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, TranslationUtil.trans(rule.getDescriptionTranslationKey()))));
+            RenderedRule result = new RenderedRule(value, world, global, language, compact, name, this.getValues(rule));
+            this.rendered.put(rule, result);
+            return result;
+        }
+
         private <T> @NotNull MutableComponent getValues(@NotNull RGRule<T> rule) {
             MutableComponent result = Component.empty();
-            String string1 = rule.getValue().toString();
+            String current = rule.codec().encode(rule.getValue());
             boolean flag = false;
-            for (String string : rule.allowed()) {
-                if (string.equals(string1)) flag = true;
-                if (!string.equals(rule.allowed()[0])) result.append(" ");
-                Object worldDefault = worldConfig.get(rule);
-                Object globalDefault = globalConfig.get(rule);
-                T ruleDefault = rule.defaultValue();
-                boolean isGlobalDefault;
-                if (worldDefault != null) {
-                    //noinspection unchecked
-                    isGlobalDefault = string.equals(rule.codec().encode((T) worldDefault));
-                } else if (globalDefault != null) {
-                    //noinspection unchecked
-                    isGlobalDefault = string.equals(rule.codec().encode((T) globalDefault));
-                } else {
-                    isGlobalDefault = string.equals(rule.codec().encode(ruleDefault));
-                }
-                boolean isSelect = string.equals(rule.codec().encode(rule.getValue()));
+            Object worldDefault = getWorldValue(rule);
+            Object globalDefault = getGlobalValue(rule);
+            // 默认值只需编码一次
+            String defaultValue;
+            if (worldDefault != null) {
+                //noinspection unchecked
+                defaultValue = rule.codec().encode((T) worldDefault);
+            } else if (globalDefault != null) {
+                //noinspection unchecked
+                defaultValue = rule.codec().encode((T) globalDefault);
+            } else {
+                defaultValue = rule.codec().encode(rule.defaultValue());
+            }
+            Component hover = TranslationUtil.trans("rolling_gate.command.rule.select.hover");
+            String[] allowed = rule.allowed();
+            for (int i = 0; i < allowed.length; i++) {
+                String string = allowed[i];
+                if (string.equals(current)) flag = true;
+                if (i > 0) result.append(" ");
+                boolean isSelect = string.equals(current);
                 MutableComponent component = Component.literal("[%s]".formatted(string));
                 Style style = Style.EMPTY;
                 if (isSelect) {
                     style = style.withColor(ChatFormatting.GREEN);
-                } else if (isGlobalDefault) {
+                } else if (string.equals(defaultValue)) {
                     style = style.withColor(ChatFormatting.BLUE);
                 } else {
                     style = style.withColor(ChatFormatting.GRAY);
                 }
                 if (!isSelect) {
-                    style = style.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, TranslationUtil.trans("rolling_gate.command.rule.select.hover")));
-                    style = style.withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/%s %s %s".formatted(literal, rule.name(), string)));
+                    style = style.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, hover));
+                    style = style.withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/%s %s %s".formatted(literal, this.commandName(rule), string)));
                 }
                 result.append(component.withStyle(style));
             }
             if (!flag) {
                 result.append(" ").append(
-                    Component.literal("[%s]".formatted(string1))
+                    Component.literal("[%s]".formatted(rule.getValue().toString()))
                         .withStyle(ChatFormatting.GREEN)
                 );
             }
@@ -266,23 +957,62 @@ public class ServerRGRuleManager extends RGRuleManager {
         }
 
         private int categoryCommand(@NotNull CommandContext<CommandSourceStack> context) {
+            return this.listCategory(context, 1);
+        }
+
+        private int categoryPageCommand(@NotNull CommandContext<CommandSourceStack> context) {
+            return this.listCategory(context, IntegerArgumentType.getInteger(context, "page"));
+        }
+
+        private int listCategory(@NotNull CommandContext<CommandSourceStack> context, int page) {
             String category = StringArgumentType.getString(context, "category");
+            List<RGRule<?>> rules = new ArrayList<>();
+            for (RGRule<?> rule : getRules()) {
+                if (Arrays.asList(rule.categories()).contains(category)) rules.add(rule);
+            }
+            int pages = Math.max(1, (rules.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+            int current = Math.min(page, pages);
             MutableComponent categoryComponent = TranslationUtil.trans(getDescriptionCategoryKey(category)).append(":");
             context.getSource().sendSuccess(() -> categoryComponent, false);
-            for (RGRule<?> rule : rules.values()) {
-                if (Arrays.stream(rule.categories()).noneMatch(s -> s.equals(category))) continue;
-                MutableComponent component = Component.literal("- ");
-                MutableComponent name = TranslationUtil.trans(rule.getNameTranslationKey());
-                component.append(name);
-                MutableComponent hover = TranslationUtil.trans(rule.getDescriptionTranslationKey());
-                name.withStyle(Style.EMPTY.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, hover)));
-                MutableComponent values = this.getValues(rule);
-                component.append(" ").append(values);
+            for (RGRule<?> rule : rules.subList((current - 1) * PAGE_SIZE, Math.min(rules.size(), current * PAGE_SIZE))) {
+                MutableComponent component = this.renderLine(rule);
                 context.getSource().sendSuccess(() -> component, false);
             }
+            if (pages > 1) {
+                MutableComponent navigation = Component.empty()
+                    .append(this.pageButton("<", category, current - 1, current > 1))
+                    .append(" ")
+                    .append(TranslationUtil.trans("rolling_gate.command.page", current, pages).withStyle(ChatFormatting.GRAY))
+                    .append(" ")
+                    .append(this.pageButton(">", category, current + 1, current < pages));
+                context.getSource().sendSuccess(() -> navigation, false);
+            }
             return 1;
         }
 
+        private @NotNull MutableComponent pageButton(String label, String category, int page, boolean enabled) {
+            MutableComponent button = Component.literal("[%s]".formatted(label));
+            if (!enabled) return button.withStyle(ChatFormatting.DARK_GRAY);
+            return button.withStyle(
+                Style.EMPTY
+                    .applyFormat(ChatFormatting.AQUA)
+                    .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/%s category %s %s".formatted(literal, category, page)))
+            );
+        }
+
+        private int allCommand(@NotNull CommandContext<CommandSourceStack> context) {
+            // 所有规则的输出可能很长，分摊到多个刻中发送
+            List<Component> lines = new ArrayList<>();
+            for (RGRule<?> rule : getRules()) lines.add(this.renderLine(rule));
+            RGMessageStream.send(context.getSource(), lines);
+            return lines.size();
+        }
+
+        private @NotNull MutableComponent renderLine(@NotNull RGRule<?> rule) {
+            RenderedRule rendered = this.render(rule);
+            return Component.literal("- ").append(rendered.name()).append(" ").append(rendered.values());
+        }
+
         private <T> int setRuleCommand(@NotNull CommandContext<CommandSourceStack> context, @NotNull RGRule<T> rule, String value) {
             try {
                 rule.setFieldValue(value);
@@ -295,7 +1025,7 @@ public class ServerRGRuleManager extends RGRuleManager {
                     .append("]")
                     .withStyle(Style.EMPTY
                         .applyFormat(ChatFormatting.AQUA)
-                        .withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, "/%s default %s %s".formatted(literal, rule.name(), value)))
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, "/%s default %s %s".formatted(literal, this.commandName(rule), value)))
                     );
                 result.append(" ").append(setDefault);
                 context.getSource().sendSuccess(() -> result, false);
@@ -320,4 +1050,21 @@ public class ServerRGRuleManager extends RGRuleManager {
             }
         }
     }
+
+    /**
+     * 规则渲染好的名称与可选值，以及渲染时所依据的版本
+     *
+     * @param value    规则值的版本
+     * @param world    世界配置中该规则值的版本
+     * @param global   全局配置中该规则值的版本
+     * @param language 渲染时使用的语言
+     * @param compact  渲染时是否使用紧凑命令树，决定点击命令中规则名称的写法
+     * @param name     带有描述提示的规则名称
+     * @param values   可选值
+     */
+    private record RenderedRule(long value, long world, long global, String language, boolean compact, Component name, Component values) {
+        private boolean matches(long value, long world, long global, String language, boolean compact) {
+            return this.value == value && this.world == world && this.global == global && this.language.equals(language) && this.compact == compact;
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package dev.anvilcraft.rg.api.server;
+
+import dev.anvilcraft.rg.api.RGRulePartition;
+import dev.anvilcraft.rg.api.RGRuleStore;
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * 服务器端的规则分区，在全局配置之外保存该命名空间的世界配置
+ * 世界配置发生变化后分区被标记为脏，保存时只写入脏分区的配置文件
+ */
+@Getter
+public class ServerRGRulePartition extends RGRulePartition {
+    // 世界配置文件路径
+    private final LevelResource worldConfigPath;
+    // 二进制格式的世界配置文件路径
+    private final LevelResource binaryConfigPath;
+    // 导出的JSON配置文件路径
+    private final LevelResource exportConfigPath;
+    // 该命名空间的世界配置，按序号索引
+    private final RGRuleStore worldConfig = new RGRuleStore(this);
+    // 世界配置的追加日志，在重新初始化时创建
+    @Setter
+    private RGRuleJournal journal = null;
+    // 世界配置是否有尚未保存的修改
+    private boolean dirty = false;
+    // 世界配置的修改计数，每次在服务器线程中修改世界配置后递增，用于判断后台读取的配置是否已经过时
+    private volatile long modCount = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param namespace        命名空间
+     * @param globalConfigPath 全局配置文件路径
+     */
+    public ServerRGRulePartition(String namespace, Path globalConfigPath) {
+        super(namespace, globalConfigPath);
+        // 与其他模组的世界文件区分，沿用 .rg.json 后缀
+        this.worldConfigPath = new LevelResource("%s.rg.json".formatted(namespace));
+        // 二进制格式使用单独的扩展名，不会被误认为JSON文件
+        this.binaryConfigPath = new LevelResource("%s.rgb".formatted(namespace));
+        this.exportConfigPath = new LevelResource("%s.rg.export.json".formatted(namespace));
+    }
+
+    /**
+     * 获取当前世界的追加日志
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @return 追加日志
+     */
+    public @NotNull RGRuleJournal getJournal(@NotNull MinecraftServer server) {
+        if (this.journal == null) this.journal = this.createJournal(server);
+        return this.journal;
+    }
+
+    /**
+     * 创建当前世界的追加日志，不会替换分区正在使用的日志
+     *
+     * @param server 服务器实例，用于访问世界路径
+     * @return 新的追加日志
+     */
+    public @NotNull RGRuleJournal createJournal(@NotNull MinecraftServer server) {
+        return new RGRuleJournal(server.getWorldPath(this.worldConfigPath), server.getWorldPath(this.binaryConfigPath));
+    }
+
+    /**
+     * 标记世界配置有尚未保存的修改
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    /**
+     * 递增修改计数，在服务器线程中修改世界配置后调用
+     */
+    public void bumpModCount() {
+        this.modCount++;
+    }
+
+    /**
+     * 清除修改标记，在配置交给后台写入后调用
+     */
+    public void clearDirty() {
+        this.dirty = false;
+    }
+}
@@ -12,6 +12,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 翻译实用程序类，用于处理语言翻译相关功能
@@ -22,9 +23,9 @@ public class TranslationUtil {
      */
     public static final Gson GSON = new Gson();
     /**
-     * 存储所有语言及其相应的翻译
+     * 存储所有语言及其相应的翻译，规则加载期间会被多个线程同时写入
      */
-    public static final Map<String, Map<String, String>> LANGUAGES = new HashMap<>();
+    public static final Map<String, Map<String, String>> LANGUAGES = new ConcurrentHashMap<>();
 
     /**
      * 将密钥转换为相应的文本，并可选择格式替换
@@ -54,9 +55,7 @@ public class TranslationUtil {
      * @param translations 包含翻译的Map
      */
     public static void addLanguage(String language, Map<String, String> translations) {
-        Map<String, String> languages = LANGUAGES.getOrDefault(language, new HashMap<>());
-        languages.putAll(translations);
-        LANGUAGES.putIfAbsent(language, languages);
+        LANGUAGES.computeIfAbsent(language, k -> new ConcurrentHashMap<>()).putAll(translations);
     }
 
     /**
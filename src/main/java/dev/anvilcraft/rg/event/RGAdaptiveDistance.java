@@ -0,0 +1,134 @@
+package dev.anvilcraft.rg.event;
+
+import dev.anvilcraft.rg.RollingGate;
+import dev.anvilcraft.rg.RollingGateServerRules;
+import dev.anvilcraft.rg.api.RGRule;
+import dev.anvilcraft.rg.api.RGRuleException;
+import dev.anvilcraft.rg.api.server.ServerRGRuleManager;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * RGAdaptiveDistance类根据服务器的MSPT自动调整视距与模拟距离规则
+ * <p>
+ * 每刻的耗时记录在固定长度的滑动窗口中，窗口填满后才进行判断：平均MSPT超过目标值时把两个距离各减一，
+ * 低于目标值的 {@link #RAISE_RATIO} 时各加一，两者之间不做调整以免来回波动。每次调整后清空窗口，
+ * 在新距离下重新采样一个完整的窗口再做下一次判断。调整通过 {@link RGRule#setFieldValue(String)} 进行，
+ * 已有的变更监听器与距离过渡照常生效，但不会写入世界配置
+ */
+public class RGAdaptiveDistance {
+    // 滑动窗口的长度，单位为刻
+    public static final int WINDOW = 100;
+    // 平均MSPT低于目标值的该比例时才提高距离
+    public static final double RAISE_RATIO = 0.7;
+    private static final long[] SAMPLES = new long[WINDOW];
+    private static int sampleCount = 0;
+    private static int sampleIndex = 0;
+    private static long sampleSum = 0;
+    private static long tickStart = 0;
+    private static RGRule<Integer> viewDistance = null;
+    private static RGRule<Integer> simulationDistance = null;
+
+    /**
+     * 查找需要调整的规则，在所有模组的规则注册完成后调用
+     *
+     * @param manager 服务器规则管理器
+     */
+    public static void register(@NotNull ServerRGRuleManager manager) {
+        RGAdaptiveDistance.viewDistance = manager.getRule(RollingGate.MODID, "view_distance");
+        RGAdaptiveDistance.simulationDistance = manager.getRule(RollingGate.MODID, "simulation_distance");
+    }
+
+    /**
+     * 记录一刻的开始时间
+     *
+     * @param event 服务器刻事件
+     */
+    public static void onServerTickPre(@NotNull ServerTickEvent.Pre event) {
+        RGAdaptiveDistance.tickStart = System.nanoTime();
+    }
+
+    /**
+     * 记录一刻的耗时，窗口填满后判断是否需要调整距离
+     *
+     * @param event 服务器刻事件
+     */
+    public static void onServerTickPost(@NotNull ServerTickEvent.Post event) {
+        // 距离规则只在独立服务器上生效
+        if (!RollingGateServerRules.adaptiveDistance || !event.getServer().isDedicatedServer()) {
+            RGAdaptiveDistance.reset();
+            return;
+        }
+        if (RGAdaptiveDistance.tickStart == 0) return;
+        long nanos = System.nanoTime() - RGAdaptiveDistance.tickStart;
+        RGAdaptiveDistance.sampleSum += nanos - RGAdaptiveDistance.SAMPLES[RGAdaptiveDistance.sampleIndex];
+        RGAdaptiveDistance.SAMPLES[RGAdaptiveDistance.sampleIndex] = nanos;
+        RGAdaptiveDistance.sampleIndex = (RGAdaptiveDistance.sampleIndex + 1) % WINDOW;
+        if (RGAdaptiveDistance.sampleCount < WINDOW) RGAdaptiveDistance.sampleCount++;
+        if (RGAdaptiveDistance.sampleCount < WINDOW) return;
+        double mspt = RGAdaptiveDistance.getAverageMspt();
+        int target = RollingGateServerRules.adaptiveTargetMspt;
+        int step;
+        if (mspt > target) {
+            step = -1;
+        } else if (mspt < target * RAISE_RATIO) {
+            step = 1;
+        } else {
+            return;
+        }
+        MinecraftServer server = event.getServer();
+        boolean changed = RGAdaptiveDistance.adjust(viewDistance, RGAdaptiveDistance.effective(server, RGDistanceTransition.VIEW), step);
+        changed |= RGAdaptiveDistance.adjust(simulationDistance, RGAdaptiveDistance.effective(server, RGDistanceTransition.SIMULATION), step);
+        // 在新距离下重新采样，避免用旧距离的数据再次调整
+        if (changed) RGAdaptiveDistance.reset();
+    }
+
+    /**
+     * 获取滑动窗口中的平均MSPT
+     *
+     * @return 平均MSPT，窗口为空时返回0
+     */
+    public static double getAverageMspt() {
+        if (RGAdaptiveDistance.sampleCount == 0) return 0;
+        return RGAdaptiveDistance.sampleSum / (double) RGAdaptiveDistance.sampleCount / 1_000_000.0;
+    }
+
+    /**
+     * 获取距离的起点，规则为0时使用服务器配置的距离，过渡进行中时使用过渡的目标值
+     *
+     * @param server     服务器实例
+     * @param transition 距离对应的过渡
+     * @return 调整的起点
+     */
+    private static int effective(@NotNull MinecraftServer server, @NotNull RGDistanceTransition transition) {
+        int target = transition.getTarget();
+        return target >= 0 ? target : transition.getCurrent(server);
+    }
+
+    private static boolean adjust(RGRule<Integer> rule, int current, int step) {
+        if (rule == null) return false;
+        int min = Math.max(2, RollingGateServerRules.adaptiveMinDistance);
+        int max = Math.max(min, RollingGateServerRules.adaptiveMaxDistance);
+        // 只朝调整方向移动一步，当前距离已经越过该方向的边界时不做调整，避免服务器过载时反而提高距离
+        if (step > 0 && current >= max || step < 0 && current <= min) return false;
+        int value = current + step;
+        try {
+            rule.setFieldValue(String.valueOf(value));
+            return true;
+        } catch (RGRuleException e) {
+            RollingGate.LOGGER.warn("Failed to adjust {} to {}", rule.name(), value, e);
+            return false;
+        }
+    }
+
+    private static void reset() {
+        if (RGAdaptiveDistance.sampleCount == 0) return;
+        Arrays.fill(RGAdaptiveDistance.SAMPLES, 0);
+        RGAdaptiveDistance.sampleCount = 0;
+        RGAdaptiveDistance.sampleIndex = 0;
+        RGAdaptiveDistance.sampleSum = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package dev.anvilcraft.rg.event;
+
+import dev.anvilcraft.rg.RollingGateServerRules;
+import lombok.Getter;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.players.PlayerList;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * RGDistanceTransition类把视距与模拟距离的调整分摊到多个刻中完成
+ * <p>
+ * 距离每增加一格，每名玩家需要加载的区块增加一圈，即8d个区块。过渡进行时每刻获得
+ * {@link RollingGateServerRules#distanceTransitionBudget} 个区块的额度，额度足够加载下一圈时才把距离加一；
+ * 缩小距离只卸载区块，因此直接设置为目标值。额度为0时不进行过渡，直接设置为目标值
+ */
+public class RGDistanceTransition {
+    public static final RGDistanceTransition VIEW = new RGDistanceTransition(
+        "view_distance", PlayerList::getViewDistance, PlayerList::setViewDistance
+    );
+    public static final RGDistanceTransition SIMULATION = new RGDistanceTransition(
+        "simulation_distance", PlayerList::getSimulationDistance, PlayerList::setSimulationDistance
+    );
+
+    // 过渡的名称，用于命令
+    @Getter
+    private final String name;
+    // 读取与设置距离的方法
+    private final ToIntFunction<PlayerList> getter;
+    private final ObjIntConsumer<PlayerList> setter;
+    // 目标距离，没有进行中的过渡时为-1
+    private int target = -1;
+    // 已累积的区块额度
+    private long credit = 0;
+
+    private RGDistanceTransition(String name, ToIntFunction<PlayerList> getter, ObjIntConsumer<PlayerList> setter) {
+        this.name = name;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * 把距离调整到目标值，额度为0或缩小距离时立即生效，否则开始过渡
+     *
+     * @param server 服务器实例
+     * @param target 目标距离
+     */
+    public synchronized void moveTo(@NotNull MinecraftServer server, int target) {
+        PlayerList players = server.getPlayerList();
+        int current = this.getter.applyAsInt(players);
+        if (RollingGateServerRules.distanceTransitionBudget <= 0 || target <= current) {
+            this.target = -1;
+            this.credit = 0;
+            if (target != current) this.setter.accept(players, target);
+            return;
+        }
+        // 过渡进行中修改目标时保留已累积的额度
+        if (this.target < 0) this.credit = 0;
+        this.target = target;
+    }
+
+    /**
+     * 取消进行中的过渡，距离停留在当前值
+     *
+     * @return 如果有进行中的过渡则返回true
+     */
+    public synchronized boolean cancel() {
+        if (this.target < 0) return false;
+        this.target = -1;
+        this.credit = 0;
+        return true;
+    }
+
+    /**
+     * 检查是否有进行中的过渡
+     *
+     * @return 如果有进行中的过渡则返回true
+     */
+    public synchronized boolean isActive() {
+        return this.target >= 0;
+    }
+
+    /**
+     * 获取过渡的目标距离
+     *
+     * @return 目标距离，没有进行中的过渡时为-1
+     */
+    public synchronized int getTarget() {
+        return this.target;
+    }
+
+    /**
+     * 获取当前距离
+     *
+     * @param server 服务器实例
+     * @return 当前距离
+     */
+    public int getCurrent(@NotNull MinecraftServer server) {
+        return this.getter.applyAsInt(server.getPlayerList());
+    }
+
+    private synchronized void tick(@NotNull MinecraftServer server) {
+        if (this.target < 0) return;
+        PlayerList players = server.getPlayerList();
+        int current = this.getter.applyAsInt(players);
+        int budget = RollingGateServerRules.distanceTransitionBudget;
+        if (budget <= 0 || current >= this.target) {
+            // 额度被关闭时直接完成过渡
+            if (current != this.target) this.setter.accept(players, this.target);
+            this.target = -1;
+            this.credit = 0;
+            return;
+        }
+        this.credit += budget;
+        int next = current;
+        long cost = RGDistanceTransition.ringCost(next + 1, players.getPlayerCount());
+        while (next < this.target && this.credit >= cost) {
+            this.credit -= cost;
+            next++;
+            cost = RGDistanceTransition.ringCost(next + 1, players.getPlayerCount());
+        }
+        if (next == current) return;
+        this.setter.accept(players, next);
+        if (next >= this.target) {
+            this.target = -1;
+            this.credit = 0;
+        }
+    }
+
+    /**
+     * 计算把距离增加到指定值时所有玩家需要新加载的区块数
+     *
+     * @param distance 增加后的距离
+     * @param players  在线玩家数
+     * @return 区块数
+     */
+    private static long ringCost(int distance, int players) {
+        return 8L * distance * Math.max(1, players);
+    }
+
+    /**
+     * 在每刻结束时推进所有进行中的过渡
+     *
+     * @param event 服务器刻事件
+     */
+    public static void onServerTick(@NotNull ServerTickEvent.Post event) {
+        RGDistanceTransition.VIEW.tick(event.getServer());
+        RGDistanceTransition.SIMULATION.tick(event.getServer());
+    }
+}
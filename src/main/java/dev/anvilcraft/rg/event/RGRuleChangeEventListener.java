@@ -1,40 +1,54 @@
 package dev.anvilcraft.rg.event;
 
 import dev.anvilcraft.rg.RollingGate;
+import dev.anvilcraft.rg.api.RGCommandPermission;
 import dev.anvilcraft.rg.api.RGRule;
 import dev.anvilcraft.rg.api.RGValidator;
-import dev.anvilcraft.rg.api.event.RGRuleChangeEvent;
+import dev.anvilcraft.rg.api.server.ServerRGRuleManager;
 import dev.anvilcraft.rg.mixin.DedicatedServerAccessor;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.TickTask;
-import net.minecraft.server.level.ServerPlayer;
-import net.neoforged.bus.api.SubscribeEvent;
-import net.neoforged.fml.common.EventBusSubscriber;
 import org.jetbrains.annotations.NotNull;
 
-@EventBusSubscriber(modid = RollingGate.MODID)
 public class RGRuleChangeEventListener {
-    @SubscribeEvent
-    public static void onRuleChange(@NotNull RGRuleChangeEvent.Server<Integer> event) {
-        RGRule<Integer> rule = event.getRule();
-        if (rule.name().equals("viewDistance")) {
-            changeViewDistance(event.getServer(), event.getNewValue());
-        } else if (rule.name().equals("simulationDistance")) {
-            changeSimulationDistance(event.getServer(), event.getNewValue());
+    /**
+     * 为规则订阅需要执行副作用的变更监听器，在所有模组的规则注册完成后调用
+     *
+     * @param manager 服务器规则管理器
+     */
+    public static void register(@NotNull ServerRGRuleManager manager) {
+        RGRule<Integer> viewDistance = manager.getRule(RollingGate.MODID, "view_distance");
+        if (viewDistance != null) viewDistance.onChange((rule, oldValue, newValue, server) -> {
+            if (server != null) RGTickEffects.schedule("view_distance", s -> changeViewDistance(s, newValue));
+        });
+        RGRule<Integer> simulationDistance = manager.getRule(RollingGate.MODID, "simulation_distance");
+        if (simulationDistance != null) simulationDistance.onChange((rule, oldValue, newValue, server) -> {
+            if (server != null) RGTickEffects.schedule("simulation_distance", s -> changeSimulationDistance(s, newValue));
+        });
+        // 命令规则只在注册时判断一次，不必在每次变更时遍历验证器
+        for (RGRule<?> rule : manager.getRules()) {
+            if (RGRuleChangeEventListener.isCommand(rule)) RGRuleChangeEventListener.subscribeCommand(rule);
         }
-        if (RGRuleChangeEventListener.isCommand(rule)) notifyPlayersCommandsChanged(event.getServer());
+    }
+
+    private static <T> void subscribeCommand(@NotNull RGRule<T> rule) {
+        // 预先编译权限判断，规则变化时由其自身的监听器更新
+        RGCommandPermission.of(rule);
+        // 只记录变更前的值，刻结束时只向权限发生变化的玩家重新发送命令树
+        rule.onChange((r, oldValue, newValue, server) -> {
+            if (server != null) RGTickEffects.commandRuleChanged(r, oldValue);
+        });
     }
 
     public static void changeViewDistance(@NotNull MinecraftServer server, int value) {
         if (!server.isDedicatedServer()) return;
         int distance = value >= 2 ? value : ((DedicatedServerAccessor) server).getSettings().getProperties().viewDistance;
-        server.getPlayerList().setViewDistance(distance);
+        RGDistanceTransition.VIEW.moveTo(server, distance);
     }
 
     public static void changeSimulationDistance(@NotNull MinecraftServer server, int value) {
         if (!server.isDedicatedServer()) return;
         int distance = value >= 2 ? value : ((DedicatedServerAccessor) server).getSettings().getProperties().simulationDistance;
-        server.getPlayerList().setSimulationDistance(distance);
+        RGDistanceTransition.SIMULATION.moveTo(server, distance);
     }
 
     public static boolean isCommand(@NotNull RGRule<?> rule) {
@@ -48,15 +62,7 @@ public class RGRuleChangeEventListener {
 
     public static void notifyPlayersCommandsChanged(MinecraftServer server) {
         if (server == null) return;
-        server.tell(new TickTask(server.getTickCount(), () ->
-        {
-            try {
-                for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-                    server.getCommands().sendCommands(player);
-                }
-            } catch (NullPointerException e) {
-                RollingGate.LOGGER.warn("Exception while refreshing commands, please report this to RollingGate", e);
-            }
-        }));
+        // 同一刻内的多次请求在刻结束时只重新发送一次命令树
+        RGTickEffects.resyncAllCommands();
     }
 }
@@ -0,0 +1,169 @@
+package dev.anvilcraft.rg.event;
+
+import dev.anvilcraft.rg.RollingGate;
+import dev.anvilcraft.rg.api.RGCommandPermission;
+import dev.anvilcraft.rg.api.RGRule;
+import dev.anvilcraft.rg.api.RGValidator;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * RGTickEffects类把规则变更的副作用合并到每刻结束时统一执行
+ * <p>
+ * 同一刻内以相同键登记的副作用只执行最后一次；命令规则的变更只记录每条规则在本刻内的原值，
+ * 刻结束时逐个玩家比较变更前后的权限，只向权限实际发生变化的玩家重新发送命令树
+ */
+public class RGTickEffects {
+    // 待执行的副作用，按键去重并保持登记顺序
+    private static final Map<String, Consumer<MinecraftServer>> PENDING = new LinkedHashMap<>();
+    // 本刻内发生变更的命令规则及其变更前的值
+    private static final Map<RGRule<?>, String> COMMAND_BASELINE = new LinkedHashMap<>();
+    // 是否需要无条件向所有玩家重新发送命令树
+    private static boolean resyncAll = false;
+    // 请求重新发送命令树的次数
+    private static final AtomicLong RESYNC_REQUESTED = new AtomicLong();
+    // 实际执行的重新发送次数，每刻至多一次
+    private static final AtomicLong RESYNC_FLUSHED = new AtomicLong();
+    // 重新发送命令树的玩家数
+    private static final AtomicLong PLAYERS_RESENT = new AtomicLong();
+    // 权限未变化而跳过的玩家数
+    private static final AtomicLong PLAYERS_SKIPPED = new AtomicLong();
+
+    /**
+     * 登记一个在本刻结束时执行的副作用，同一刻内相同键的副作用只保留最后一次登记
+     *
+     * @param key    副作用的键
+     * @param effect 副作用
+     */
+    public static synchronized void schedule(@NotNull String key, @NotNull Consumer<MinecraftServer> effect) {
+        RGTickEffects.PENDING.put(key, effect);
+    }
+
+    /**
+     * 记录命令规则的变更，本刻结束时只向权限发生变化的玩家重新发送命令树
+     *
+     * @param rule     命令规则
+     * @param oldValue 变更前的值
+     */
+    public static synchronized void commandRuleChanged(@NotNull RGRule<?> rule, Object oldValue) {
+        RGTickEffects.RESYNC_REQUESTED.incrementAndGet();
+        // 同一刻内多次修改时以本刻第一次修改前的值为准
+        RGTickEffects.COMMAND_BASELINE.putIfAbsent(rule, String.valueOf(oldValue));
+    }
+
+    /**
+     * 请求在本刻结束时向所有玩家重新发送命令树
+     */
+    public static synchronized void resyncAllCommands() {
+        RGTickEffects.RESYNC_REQUESTED.incrementAndGet();
+        RGTickEffects.resyncAll = true;
+    }
+
+    /**
+     * 在每刻结束时执行本刻登记的所有副作用
+     *
+     * @param event 服务器刻事件
+     */
+    public static void onServerTick(@NotNull ServerTickEvent.Post event) {
+        RGTickEffects.flush(event.getServer());
+    }
+
+    /**
+     * 立即执行所有已登记的副作用
+     *
+     * @param server 服务器实例
+     */
+    public static void flush(@NotNull MinecraftServer server) {
+        List<Consumer<MinecraftServer>> effects;
+        Map<RGRule<?>, String> baseline;
+        boolean all;
+        synchronized (RGTickEffects.class) {
+            if (RGTickEffects.PENDING.isEmpty() && RGTickEffects.COMMAND_BASELINE.isEmpty() && !RGTickEffects.resyncAll) return;
+            effects = new ArrayList<>(RGTickEffects.PENDING.values());
+            baseline = new LinkedHashMap<>(RGTickEffects.COMMAND_BASELINE);
+            all = RGTickEffects.resyncAll;
+            RGTickEffects.PENDING.clear();
+            RGTickEffects.COMMAND_BASELINE.clear();
+            RGTickEffects.resyncAll = false;
+        }
+        for (Consumer<MinecraftServer> effect : effects) {
+            try {
+                effect.accept(server);
+            } catch (RuntimeException e) {
+                RollingGate.LOGGER.error("Exception while applying rule side effect", e);
+            }
+        }
+        // 改回原值的规则不影响任何玩家的权限
+        baseline.entrySet().removeIf(entry -> entry.getValue().equals(String.valueOf(entry.getKey().getValue())));
+        if (baseline.isEmpty() && !all) return;
+        RGTickEffects.resyncCommands(server, baseline, all);
+    }
+
+    private static void resyncCommands(@NotNull MinecraftServer server, Map<RGRule<?>, String> baseline, boolean all) {
+        RGTickEffects.RESYNC_FLUSHED.incrementAndGet();
+        try {
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                if (all || RGTickEffects.permissionChanged(player.createCommandSourceStack(), baseline)) {
+                    server.getCommands().sendCommands(player);
+                    RGTickEffects.PLAYERS_RESENT.incrementAndGet();
+                } else {
+                    RGTickEffects.PLAYERS_SKIPPED.incrementAndGet();
+                }
+            }
+        } catch (NullPointerException e) {
+            RollingGate.LOGGER.warn("Exception while refreshing commands, please report this to RollingGate", e);
+        }
+    }
+
+    private static boolean permissionChanged(@NotNull CommandSourceStack source, @NotNull Map<RGRule<?>, String> baseline) {
+        for (Map.Entry<RGRule<?>, String> entry : baseline.entrySet()) {
+            boolean before = RGValidator.CommandRuleValidator.compile(entry.getValue()).test(source);
+            boolean after = RGCommandPermission.of(entry.getKey()).test(source);
+            if (before != after) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取命令树重新发送的统计
+     *
+     * @return 统计数据
+     */
+    public static @NotNull Stats getStats() {
+        return new Stats(
+            RGTickEffects.RESYNC_REQUESTED.get(),
+            RGTickEffects.RESYNC_FLUSHED.get(),
+            RGTickEffects.PLAYERS_RESENT.get(),
+            RGTickEffects.PLAYERS_SKIPPED.get()
+        );
+    }
+
+    /**
+     * 命令树重新发送的统计
+     *
+     * @param requested 请求重新发送的次数
+     * @param flushed   实际执行重新发送的次数
+     * @param resent    重新发送命令树的玩家数
+     * @param skipped   权限未变化而跳过的玩家数
+     */
+    public record Stats(long requested, long flushed, long resent, long skipped) {
+        /**
+         * 获取因合并而省去的重新发送次数
+         *
+         * @return 省去的重新发送次数
+         */
+        public long coalesced() {
+            return Math.max(0, this.requested - this.flushed);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.anvilcraft.rg.mixin;
 
+import dev.anvilcraft.rg.tools.chest.menu.CustomChestMenu;
 import dev.anvilcraft.rg.tools.chest.menu.control.Button;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.world.entity.player.Player;
@@ -7,26 +8,44 @@ import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ClickType;
 import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.component.CustomData;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(AbstractContainerMenu.class)
 abstract class AbstractContainerMenuMixin {
+    // 0: 未检查, 1: 包含 CustomChestMenu, 2: 不包含
+    @Unique
+    private byte rolling_gate$customChestState = 0;
+
     @Inject(method = "doClick", at = @At("HEAD"), cancellable = true)
     private void doClick(int slotIndex, int button, ClickType clickType, Player player, CallbackInfo ci) {
         if (slotIndex < 0) return;
+        if (!this.rolling_gate$isCustomChestMenu()) return;
         Slot slot = ((AbstractContainerMenu) (Object) this).getSlot(slotIndex);
         ItemStack itemStack = slot.getItem();
-        CustomData customData = itemStack.get(DataComponents.CUSTOM_DATA);
-        if (customData == null || customData.copyTag().get(Button.RG_CLEAR) == null) {
-            return;
-        }
-        if (customData.copyTag().getBoolean(Button.RG_CLEAR)) {
+        if (Button.shouldClear(itemStack.get(DataComponents.CUSTOM_DATA))) {
             itemStack.setCount(0);
             ci.cancel();
         }
     }
+
+    /**
+     * 判断当前菜单是否由 CustomChestMenu 提供，槽位在构造时已确定，因此只需检查一次
+     */
+    @Unique
+    private boolean rolling_gate$isCustomChestMenu() {
+        if (this.rolling_gate$customChestState == 0) {
+            this.rolling_gate$customChestState = 2;
+            for (Slot slot : ((AbstractContainerMenu) (Object) this).slots) {
+                if (slot.container instanceof CustomChestMenu) {
+                    this.rolling_gate$customChestState = 1;
+                    break;
+                }
+            }
+        }
+        return this.rolling_gate$customChestState == 1;
+    }
 }
@@ -0,0 +1,27 @@
+package dev.anvilcraft.rg.mixin;
+
+import dev.anvilcraft.rg.api.server.ServerRGRuleManager;
+import net.minecraft.commands.Commands;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(Commands.class)
+abstract class CommandsMixin {
+    @Inject(
+        method = {"sendCommands"},
+        at = {@At("HEAD")}
+    )
+    private void sendCommandsStart(CallbackInfo ci) {
+        ServerRGRuleManager.setSendingCommandTree(true);
+    }
+
+    @Inject(
+        method = {"sendCommands"},
+        at = {@At("RETURN")}
+    )
+    private void sendCommandsEnd(CallbackInfo ci) {
+        ServerRGRuleManager.setSendingCommandTree(false);
+    }
+}
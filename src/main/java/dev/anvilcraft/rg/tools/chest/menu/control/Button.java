@@ -14,6 +14,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.component.CustomData;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -196,4 +197,26 @@ public class Button {
     public boolean isOn() {
         return flag;
     }
+
+    /**
+     * 判断自定义数据是否带有按钮标记，直接查询标签而不复制 NBT
+     *
+     * @param customData 物品的自定义数据，可以为空
+     * @return 如果带有按钮标记则返回true
+     */
+    public static boolean isButton(@Nullable CustomData customData) {
+        return customData != null && customData.contains(RG_CLEAR);
+    }
+
+    /**
+     * 判断带有按钮标记的物品是否需要被清除，只读取标签而不复制 NBT
+     *
+     * @param customData 物品的自定义数据，可以为空
+     * @return 如果按钮标记为true则返回true
+     */
+    @SuppressWarnings("deprecation")
+    public static boolean shouldClear(@Nullable CustomData customData) {
+        if (!Button.isButton(customData)) return false;
+        return customData.getUnsafe().getBoolean(RG_CLEAR);
+    }
 }